@@ -0,0 +1,123 @@
+package db.migration.common;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import quizApp.utils.AnswerCodec;
+
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ответы QuizResult переезжают из user_answers (строка на вопрос) в quiz_results.encoded_answers
+ * (символ на вопрос, см. AnswerCodec). Ответы, которые одним символом не записываются, и ответы
+ * на вопросы, которых уже нет в тесте, сохраняются как есть в quiz_result_raw_answers.
+ * Все данные перенесены, поэтому user_answers удаляется: её внешние ключи мешали бы удалять вопросы.
+ */
+public class V1_3__QuizResultEncodedAnswers extends BaseJavaMigration {
+
+    private static final int BATCH_SIZE = 500;
+
+    @Override
+    public void migrate(Context context) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new SingleConnectionDataSource(context.getConnection(), true));
+
+        jdbcTemplate.execute("alter table quiz_results add column encoded_answers varchar(1000)");
+        jdbcTemplate.execute("""
+                create table quiz_result_raw_answers (
+                    question_id bigint not null,
+                    result_id bigint not null,
+                    answer varchar(255),
+                    primary key (question_id, result_id)
+                ) engine=InnoDB""");
+        jdbcTemplate.execute("""
+                alter table quiz_result_raw_answers
+                   add constraint fk_quiz_result_raw_answers_result
+                   foreign key (result_id)
+                   references quiz_results (id)""");
+
+        // quiz_id -> вопросы теста по возрастанию id, в порядке AnswerCodec
+        Map<Long, List<Long>> questionsByQuiz = new HashMap<>();
+        jdbcTemplate.query("select quiz_id, question_id from quiz_questions order by quiz_id, question_id",
+                (ResultSet rs) -> {
+                    questionsByQuiz.computeIfAbsent(rs.getLong(1), id -> new ArrayList<>()).add(rs.getLong(2));
+                });
+
+        Converter converter = new Converter(jdbcTemplate, questionsByQuiz);
+        jdbcTemplate.query("select ua.result_id, r.quiz_id, ua.question_id, ua.user_answer from user_answers ua "
+                + "join quiz_results r on r.id = ua.result_id order by ua.result_id", (ResultSet rs) -> {
+            Long quizId = rs.getObject(2, Long.class);
+            converter.add(rs.getLong(1), quizId, rs.getLong(3), rs.getString(4));
+        });
+        converter.finish();
+
+        jdbcTemplate.execute("drop table user_answers");
+    }
+
+    // Ответы приходят отсортированными по результату; каждый результат записывается целиком
+    private static final class Converter {
+
+        private final JdbcTemplate jdbcTemplate;
+        private final Map<Long, List<Long>> questionsByQuiz;
+        private final List<Object[]> encoded = new ArrayList<>();
+        private final List<Object[]> raw = new ArrayList<>();
+
+        private Long resultId;
+        private Long quizId;
+        private final Map<Long, String> answers = new HashMap<>();
+
+        Converter(JdbcTemplate jdbcTemplate, Map<Long, List<Long>> questionsByQuiz) {
+            this.jdbcTemplate = jdbcTemplate;
+            this.questionsByQuiz = questionsByQuiz;
+        }
+
+        void add(long resultId, Long quizId, long questionId, String answer) {
+            if (this.resultId != null && this.resultId != resultId) {
+                convertResult();
+            }
+            this.resultId = resultId;
+            this.quizId = quizId;
+            answers.put(questionId, answer);
+        }
+
+        void finish() {
+            if (resultId != null) {
+                convertResult();
+            }
+            flush();
+        }
+
+        private void convertResult() {
+            List<Long> questionIds = quizId == null ? List.of() : questionsByQuiz.getOrDefault(quizId, List.of());
+            StringBuilder answersLine = new StringBuilder(questionIds.size());
+            for (Long questionId : questionIds) {
+                answersLine.append(AnswerCodec.encodeAnswer(answers.get(questionId)));
+            }
+            if (quizId != null) {
+                encoded.add(new Object[]{answersLine.toString(), resultId});
+            }
+            answers.forEach((questionId, answer) -> {
+                boolean inQuiz = questionIds.contains(questionId);
+                if (answer != null && (!inQuiz || AnswerCodec.encodeAnswer(answer) == AnswerCodec.RAW_ANSWER)) {
+                    raw.add(new Object[]{questionId, resultId, answer});
+                }
+            });
+            answers.clear();
+            if (encoded.size() >= BATCH_SIZE || raw.size() >= BATCH_SIZE) {
+                flush();
+            }
+        }
+
+        private void flush() {
+            jdbcTemplate.batchUpdate("update quiz_results set encoded_answers = ? where id = ?", encoded);
+            jdbcTemplate.batchUpdate("insert into quiz_result_raw_answers (question_id, result_id, answer) "
+                    + "values (?, ?, ?)", raw);
+            encoded.clear();
+            raw.clear();
+        }
+    }
+}
@@ -2,8 +2,10 @@ package quizApp;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class JavaQuizApplication {
     public static void main(String[] args) {
         SpringApplication.run(JavaQuizApplication.class, args);
@@ -1,12 +1,17 @@
 package quizApp.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import quizApp.utils.AIHttpClient;
+
+import java.time.Duration;
 
 @Configuration
 public class AppConfig {
@@ -29,6 +34,8 @@ public class AppConfig {
                         .allowedOrigins(allowedOrigins)
                         .allowedMethods(allowedMethods)
                         .allowedHeaders(allowedHeaders)
+                        // ETag нужен фронтенду для условных запросов (If-None-Match)
+                        .exposedHeaders("ETag")
                         .allowCredentials(true)
                         .maxAge(3600);
             }
@@ -36,12 +43,71 @@ public class AppConfig {
     }
 
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public ThreadPoolTaskExecutor quizGenerationExecutor(
+            @Value("${quiz.generation.pool-size:4}") int poolSize,
+            @Value("${quiz.generation.queue-capacity:50}") int queueCapacity) {
+        // Фиксированный пул: долгие вызовы AI не должны занимать потоки Tomcat
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("quiz-gen-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor passwordHashingExecutor(
+            @Value("${quiz.password-hashing.pool-size:2}") int poolSize,
+            @Value("${quiz.password-hashing.queue-capacity:50}") int queueCapacity) {
+        // BCrypt занимает ядро на десятки миллисекунд: число таких ядер ограничено размером пула
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("pwd-hash-");
+        return executor;
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor questionPoolRefillExecutor(
+            @Value("${quiz.pool.refill-concurrency:2}") int concurrency,
+            @Value("${quiz.pool.max-buckets:50}") int maxBuckets) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(concurrency);
+        executor.setMaxPoolSize(concurrency);
+        executor.setQueueCapacity(maxBuckets);
+        executor.setThreadNamePrefix("quiz-pool-");
+        return executor;
+    }
+
+    @Bean
+    public AIHttpClient aiHttpClient(
+            MeterRegistry meterRegistry,
+            @Value("${ai.http.connect-timeout-ms:5000}") long connectTimeoutMs,
+            @Value("${ai.http.read-timeout-ms:120000}") long readTimeoutMs,
+            @Value("${ai.http.total-timeout-ms:140000}") long totalTimeoutMs,
+            @Value("${ai.http.pool.max-connections:20}") int maxConnections,
+            @Value("${ai.http.pool.keep-alive-seconds:300}") int keepAliveSeconds) {
+        // Пул java.net.http настраивается только системными свойствами, которые читаются при первом создании клиента
+        setIfAbsent("jdk.httpclient.connectionPoolSize", String.valueOf(maxConnections));
+        setIfAbsent("jdk.httpclient.keepalive.timeout", String.valueOf(keepAliveSeconds));
+        return new AIHttpClient(Duration.ofMillis(connectTimeoutMs), Duration.ofMillis(readTimeoutMs),
+                Duration.ofMillis(totalTimeoutMs), meterRegistry);
     }
 
     @Bean
     public ObjectMapper objectMapper() {
-        return new ObjectMapper();
+        // JavaTimeModule нужен для LocalDateTime в ответах (статусы задач генерации и т.п.)
+        return new ObjectMapper()
+                .findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    private static void setIfAbsent(String property, String value) {
+        if (System.getProperty(property) == null) {
+            System.setProperty(property, value);
+        }
     }
 }
\ No newline at end of file
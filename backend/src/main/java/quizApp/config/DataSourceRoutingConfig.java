@@ -0,0 +1,103 @@
+package quizApp.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Два пула - основной (spring.datasource.*) и реплика (quiz.datasource.replica.*) - за одним
+ * маршрутизирующим DataSource. Включается свойством quiz.datasource.replica.enabled;
+ * без него работает обычный DataSource из автоконфигурации Spring Boot.
+ */
+@Configuration
+@ConditionalOnProperty(name = "quiz.datasource.replica.enabled", havingValue = "true")
+public class DataSourceRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("quiz.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(
+            DataSourceProperties properties,
+            @Value("${quiz.datasource.replica.url}") String url,
+            @Value("${quiz.datasource.replica.username:}") String username,
+            @Value("${quiz.datasource.replica.password:}") String password) {
+        // Учётные данные по умолчанию те же, что у основной базы
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(properties.determineDriverClassName())
+                .url(url)
+                .username(username.isEmpty() ? properties.determineUsername() : username)
+                .password(password.isEmpty() ? properties.determinePassword() : password)
+                .build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public ReadWriteRoutingDataSource routingDataSource(
+            @Qualifier("primaryDataSource") DataSource primaryDataSource,
+            @Qualifier("replicaDataSource") DataSource replicaDataSource,
+            @Value("${quiz.datasource.replica.max-lag-seconds:5}") long maxLagSeconds,
+            @Value("${quiz.datasource.replica.sticky-seconds:5}") long stickySeconds,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primaryDataSource, replicaDataSource,
+                Duration.ofSeconds(maxLagSeconds), Duration.ofSeconds(stickySeconds));
+        routing.checkReplica();
+        meterRegistry.ifAvailable(registry -> {
+            Gauge.builder("datasource.replica.lag.seconds", routing, ReadWriteRoutingDataSource::getReplicaLagSeconds)
+                    .register(registry);
+            Gauge.builder("datasource.replica.usable", routing, r -> r.isReplicaUsable() ? 1 : 0)
+                    .register(registry);
+        });
+        return routing;
+    }
+
+    // Ленивый прокси: соединение берётся при первом запросе, когда флаг readOnly транзакции уже выставлен
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    @Bean
+    public ReplicaLagChecker replicaLagChecker(ReadWriteRoutingDataSource routingDataSource) {
+        return new ReplicaLagChecker(routingDataSource);
+    }
+
+    static class ReplicaLagChecker {
+
+        private final ReadWriteRoutingDataSource routingDataSource;
+
+        ReplicaLagChecker(ReadWriteRoutingDataSource routingDataSource) {
+            this.routingDataSource = routingDataSource;
+        }
+
+        @Scheduled(fixedDelayString = "${quiz.datasource.replica.check-interval-ms:5000}")
+        void check() {
+            routingDataSource.checkReplica();
+        }
+    }
+}
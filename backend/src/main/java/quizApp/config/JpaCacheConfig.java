@@ -0,0 +1,122 @@
+package quizApp.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import quizApp.model.Question;
+import quizApp.model.Quiz;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Кэш второго уровня Hibernate в памяти процесса (JCache поверх Caffeine).
+ * Тесты и их вопросы после сохранения почти не меняются, поэтому сущности и коллекции
+ * живут в ограниченных по размеру и TTL регионах, а запросы по тегам и сложности - в кэше запросов.
+ * Изменения через Hibernate (update, delete) сбрасывают соответствующие записи сами.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "quiz.cache.enabled", havingValue = "true", matchIfMissing = true)
+public class JpaCacheConfig {
+
+    static final List<String> ENTITY_REGIONS = List.of(
+            Quiz.class.getName(),
+            Quiz.class.getName() + ".questions",
+            Quiz.class.getName() + ".tags",
+            Question.class.getName());
+
+    static final String QUERY_REGION = "default-query-results-region";
+    static final String TIMESTAMPS_REGION = "default-update-timestamps-region";
+
+    @Bean(destroyMethod = "close")
+    public CacheManager jpaCacheManager(
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${quiz.cache.entity.max-size:10000}") long entityMaxSize,
+            @Value("${quiz.cache.entity.ttl-minutes:60}") long entityTtlMinutes,
+            @Value("${quiz.cache.query.max-size:1000}") long queryMaxSize,
+            @Value("${quiz.cache.query.ttl-minutes:10}") long queryTtlMinutes) {
+        // Свой CacheManager на каждый контекст Spring: в тестах их может быть поднято несколько
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("quiz-jpa-cache-" + Integer.toHexString(System.identityHashCode(this))),
+                        getClass().getClassLoader());
+
+        ENTITY_REGIONS.forEach(region ->
+                cacheManager.createCache(region, regionConfiguration(entityMaxSize, entityTtlMinutes)));
+        cacheManager.createCache(QUERY_REGION, regionConfiguration(queryMaxSize, queryTtlMinutes));
+        // Метки последних изменений таблиц нельзя вытеснять раньше результатов запросов: по записи на таблицу, без лимита
+        cacheManager.createCache(TIMESTAMPS_REGION, regionConfiguration(-1, -1));
+
+        meterRegistry.ifAvailable(registry -> cacheManager.getCacheNames().forEach(region -> bindMetrics(cacheManager, region, registry)));
+        log.info("Second-level cache regions: {}", cacheManager.getCacheNames());
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager jpaCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, jpaCacheManager);
+            // Регион без настроек был бы безлимитным - новый @Cache должен попасть в ENTITY_REGIONS
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    private static CaffeineConfiguration<Object, Object> regionConfiguration(long maxSize, long ttlMinutes) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        if (maxSize > 0) {
+            configuration.setMaximumSize(OptionalLong.of(maxSize));
+        }
+        if (ttlMinutes > 0) {
+            configuration.setExpireAfterWrite(OptionalLong.of(TimeUnit.MINUTES.toNanos(ttlMinutes)));
+        }
+        configuration.setStatisticsEnabled(true);
+        return configuration;
+    }
+
+    private static void bindMetrics(CacheManager cacheManager, String region, MeterRegistry registry) {
+        // cache.gets{result=hit|miss}, cache.puts, cache.evictions, cache.removals
+        JCacheMetrics.monitor(registry, cacheManager.getCache(region), "region", region);
+
+        Gauge.builder("jpa.cache.hit.ratio", registry, r -> ratio(r, region, "hit"))
+                .description("Доля попаданий в регион кэша второго уровня")
+                .tag("region", region)
+                .register(registry);
+        Gauge.builder("jpa.cache.miss.ratio", registry, r -> ratio(r, region, "miss"))
+                .description("Доля промахов в регион кэша второго уровня")
+                .tag("region", region)
+                .register(registry);
+    }
+
+    private static double ratio(MeterRegistry registry, String region, String result) {
+        double hits = gets(registry, region, "hit");
+        double misses = gets(registry, region, "miss");
+        if (hits + misses == 0) {
+            return 0;
+        }
+        return (result.equals("hit") ? hits : misses) / (hits + misses);
+    }
+
+    private static double gets(MeterRegistry registry, String region, String result) {
+        FunctionCounter counter = registry.find("cache.gets").tags("cache", region, "result", result).functionCounter();
+        return counter == null ? 0 : counter.count();
+    }
+}
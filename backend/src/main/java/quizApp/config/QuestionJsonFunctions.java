@@ -0,0 +1,26 @@
+package quizApp.config;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * HQL-функция json_has_tag(tags, tag) для поиска по JSON-массиву тегов вопроса.
+ * В MySQL это MEMBER OF, который использует multi-valued индекс idx_questions_tags
+ * (миграция db/migration/mysql/V3). Остальные базы (H2 в тестах) сравнивают текст JSON.
+ */
+public class QuestionJsonFunctions implements FunctionContributor {
+
+    public static final String HAS_TAG = "json_has_tag";
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        String pattern = functionContributions.getDialect() instanceof MySQLDialect
+                ? "(?2 member of (?1))"
+                : "(cast(?1 as varchar) like concat('%\"', ?2, '\"%'))";
+        functionContributions.getFunctionRegistry().registerPattern(HAS_TAG, pattern,
+                functionContributions.getTypeConfiguration().getBasicTypeRegistry()
+                        .resolve(StandardBasicTypes.BOOLEAN));
+    }
+}
@@ -0,0 +1,143 @@
+package quizApp.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Транзакции readOnly идут на реплику, всё остальное - на основную базу.
+ * На основную базу уходят и чтения, если реплика недоступна или отстаёт больше maxLag,
+ * и чтения пользователя, который только что сам что-то записал (в течение stickiness).
+ * Ключ выбирается при первом запросе транзакции, поэтому снаружи нужен LazyConnectionDataSourceProxy.
+ */
+@Slf4j
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Target { PRIMARY, REPLICA }
+
+    private final DataSource replica;
+    private final long maxLagSeconds;
+
+    // пользователь -> был недавний коммит пишущей транзакции; запись живёт stickiness
+    private final Cache<String, Boolean> recentWriters;
+
+    private volatile boolean replicaAvailable = true;
+    private volatile long replicaLagSeconds;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, Duration maxLag, Duration stickiness) {
+        this(primary, replica, maxLag, stickiness, Ticker.systemTicker());
+    }
+
+    ReadWriteRoutingDataSource(DataSource primary, DataSource replica, Duration maxLag, Duration stickiness,
+                               Ticker ticker) {
+        this.replica = replica;
+        this.maxLagSeconds = maxLag.toSeconds();
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(stickiness)
+                .maximumSize(100_000)
+                .ticker(ticker)
+                .build();
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return currentTarget();
+    }
+
+    public Target currentTarget() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            rememberWriter();
+            return Target.PRIMARY;
+        }
+        String user = currentUser();
+        if (user != null && recentWriters.getIfPresent(user) != null) {
+            return Target.PRIMARY;
+        }
+        return isReplicaUsable() ? Target.REPLICA : Target.PRIMARY;
+    }
+
+    public boolean isReplicaUsable() {
+        return replicaAvailable && replicaLagSeconds <= maxLagSeconds;
+    }
+
+    public long getReplicaLagSeconds() {
+        return replicaLagSeconds;
+    }
+
+    /**
+     * Проверка реплики: для MySQL - Seconds_Behind_Source из SHOW REPLICA STATUS
+     * (пустой ответ - это не реплика, отставания нет; NULL - репликация остановлена),
+     * для остальных баз - только доступность соединения.
+     */
+    public void checkReplica() {
+        try (Connection connection = replica.getConnection()) {
+            if (!"MySQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName())) {
+                updateReplicaState(connection.isValid(1), 0);
+                return;
+            }
+            try (Statement statement = connection.createStatement();
+                 ResultSet status = statement.executeQuery("SHOW REPLICA STATUS")) {
+                if (!status.next()) {
+                    updateReplicaState(true, 0);
+                    return;
+                }
+                long lag = status.getLong("Seconds_Behind_Source");
+                updateReplicaState(!status.wasNull(), lag);
+            }
+        } catch (SQLException e) {
+            log.warn("Replica check failed, reads go to primary: {}", e.getMessage());
+            updateReplicaState(false, replicaLagSeconds);
+        }
+    }
+
+    void updateReplicaState(boolean available, long lagSeconds) {
+        boolean wasUsable = isReplicaUsable();
+        replicaAvailable = available;
+        replicaLagSeconds = lagSeconds;
+        if (wasUsable != isReplicaUsable()) {
+            log.info("Replica is now {} (available={}, lag={}s, max={}s)",
+                    isReplicaUsable() ? "used for reads" : "bypassed", available, lagSeconds, maxLagSeconds);
+        }
+    }
+
+    // Отметка ставится после коммита: откатившаяся транзакция ничего не записала
+    private void rememberWriter() {
+        String user = currentUser();
+        if (user == null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recentWriters.put(user, Boolean.TRUE);
+            }
+        });
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken
+                || !authentication.isAuthenticated()) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
@@ -4,9 +4,11 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import quizApp.model.Question;
+import quizApp.model.dto.QuestionPage;
 import quizApp.service.QuestionService;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/questions")
@@ -34,4 +36,44 @@ public class QuestionController {
     public ResponseEntity<List<String>> getAllTags() {
         return ResponseEntity.ok(questionService.getAllTags());
     }
+
+    @GetMapping("/by-tag/{tag}")
+    public ResponseEntity<QuestionPage> getQuestionsByTag(
+            @PathVariable String tag,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(questionService.getQuestionsByTag(tag, page, size));
+    }
+
+    @GetMapping("/by-difficulty/{difficulty}")
+    public ResponseEntity<QuestionPage> getQuestionsByDifficulty(
+            @PathVariable String difficulty,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(questionService.getQuestionsByDifficulty(difficulty, page, size));
+    }
+
+    // Без параметров - всего вопросов в банке
+    @GetMapping("/count")
+    public ResponseEntity<Map<String, Long>> countQuestions(
+            @RequestParam(required = false) String tag,
+            @RequestParam(required = false) String difficulty) {
+        long count;
+        if (tag != null && difficulty != null) {
+            count = questionService.getQuestionsCount(tag, difficulty);
+        } else if (tag != null) {
+            count = questionService.getQuestionsCountByTag(tag);
+        } else if (difficulty != null) {
+            count = questionService.getQuestionsCountByDifficulty(difficulty);
+        } else {
+            count = questionService.getTotalQuestions();
+        }
+        return ResponseEntity.ok(Map.of("count", count));
+    }
+
+    // Тег -> сложность -> число вопросов, для дашбордов
+    @GetMapping("/matrix")
+    public ResponseEntity<Map<String, Map<String, Long>>> getTagDifficultyMatrix() {
+        return ResponseEntity.ok(questionService.getTagDifficultyMatrix());
+    }
 }
\ No newline at end of file
@@ -1,20 +1,33 @@
 package quizApp.controller;
 
-import jakarta.transaction.Transactional;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import quizApp.model.Quiz;
 import quizApp.model.QuizResult;
+import quizApp.model.dto.GenerationJobResponse;
+import quizApp.model.dto.QuizCataloguePage;
 import quizApp.model.dto.QuizRequest;
 import quizApp.model.dto.QuizResponse;
 import quizApp.service.AIService;
+import quizApp.service.QuizGenerationJobService;
+import quizApp.service.QuizResponseCache;
 import quizApp.service.QuizService;
+import quizApp.service.QuizStreamingService;
 
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @RestController
@@ -30,11 +43,21 @@ public class QuizController {
     @Autowired
     private QuizService quizService;
 
+    @Autowired
+    private QuizResponseCache quizResponseCache;
+
     @Autowired
     private AIService aiService;
 
+    @Autowired
+    private QuizGenerationJobService generationJobService;
+
+    @Autowired
+    private QuizStreamingService streamingService;
+
+    private static final long MAX_JOB_WAIT_SECONDS = 60;
+
     @PostMapping("/generate")
-    @Transactional
     public ResponseEntity<QuizResponse> generateQuiz(@RequestBody QuizRequest request) {
         log.info("Received generate request: {}", request);
 
@@ -44,10 +67,72 @@ public class QuizController {
 
     }
 
+    @PostMapping("/generate/jobs")
+    public ResponseEntity<GenerationJobResponse> submitGenerationJob(@RequestBody QuizRequest request,
+                                                                     Authentication authentication) {
+        log.info("Received generate job request: {}", request);
+
+        GenerationJobResponse job = generationJobService.submit(request, authentication.getName());
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+    }
+
+    // waitSeconds > 0 включает long-poll: ответ придёт, как только задача завершится
+    @GetMapping("/generate/jobs/{jobId}")
+    public DeferredResult<GenerationJobResponse> getGenerationJob(@PathVariable String jobId,
+                                                                  @RequestParam(defaultValue = "0") long waitSeconds,
+                                                                  Authentication authentication) {
+        String owner = authentication.getName();
+        GenerationJobResponse job = generationJobService.getJob(jobId, owner);
+        long waitMs = TimeUnit.SECONDS.toMillis(Math.min(Math.max(waitSeconds, 0), MAX_JOB_WAIT_SECONDS));
+
+        DeferredResult<GenerationJobResponse> result =
+                new DeferredResult<>(waitMs > 0 ? waitMs : null, () -> generationJobService.getJob(jobId, owner));
+        if (waitMs == 0 || job.isFinished()) {
+            result.setResult(job);
+            return result;
+        }
+
+        generationJobService.awaitJob(jobId, owner).thenAccept(result::setResult);
+        return result;
+    }
+
+    @PostMapping(value = "/generate/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamQuiz(@RequestBody QuizRequest request, HttpServletResponse response) {
+        log.info("Received streaming generate request: {}", request);
+
+        // Не даём nginx буферизовать события
+        response.setHeader("X-Accel-Buffering", "no");
+        return streamingService.stream(request);
+    }
+
+    // Тест отдаётся готовыми байтами из кэша; повторный просмотр с тем же ETag получает 304 без тела
     @GetMapping("/{id}")
-    public ResponseEntity<QuizResponse> getQuiz(@PathVariable Long id) {
-        QuizResponse quiz = quizService.getQuizById(id);
-        return ResponseEntity.ok(quiz);
+    public ResponseEntity<byte[]> getQuiz(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        QuizResponseCache.CachedQuiz quiz = quizResponseCache.get(id, () -> quizService.getQuizById(id));
+        boolean gzip = quiz.hasGzip() && acceptEncoding != null && acceptEncoding.contains("gzip");
+        String etag = gzip ? quiz.gzipEtag() : quiz.etag();
+        CacheControl revalidate = CacheControl.noCache().cachePrivate();
+
+        if (quiz.matches(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(revalidate)
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(etag)
+                .cacheControl(revalidate)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(quiz.gzip());
+        }
+        return response.body(quiz.json());
     }
 
     @DeleteMapping("/delete-quiz/{id}")
@@ -60,6 +145,14 @@ public class QuizController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/catalogue")
+    public ResponseEntity<QuizCataloguePage> getCatalogue(
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(quizService.getCatalogue(cursor, page, size));
+    }
+
     @GetMapping("/all-quizzes")
     public ResponseEntity<List<QuizResponse>> getAllQuizzes() {
 
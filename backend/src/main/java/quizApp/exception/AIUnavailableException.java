@@ -0,0 +1,7 @@
+package quizApp.exception;
+
+public class AIUnavailableException extends RuntimeException {
+    public AIUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package quizApp.model;
+
+public enum GenerationJobStatus {
+    PENDING,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
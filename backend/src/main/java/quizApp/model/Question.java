@@ -1,16 +1,28 @@
 package quizApp.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Set;
 
 @Entity
 @Table(name = "questions")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Question {
+    // Длина элемента в multi-valued индексе idx_questions_tags (cast(tags as char(64) array), MySQL)
+    public static final int MAX_TAG_LENGTH = 64;
+
+    // Последовательность с пулом id: при IDENTITY Hibernate не может батчить INSERT
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "questions_seq")
+    @SequenceGenerator(name = "questions_seq", sequenceName = "questions_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, columnDefinition = "TEXT")
@@ -19,8 +31,9 @@ public class Question {
     @Enumerated(EnumType.STRING)
     private QuestionType type;
 
-    @ElementCollection(fetch = FetchType.EAGER)
-    @CollectionTable(name = "question_options", joinColumns = @JoinColumn(name = "question_id"))
+    // Варианты и теги хранятся JSON-массивами в самой строке вопроса: вопрос читается одним SELECT
+    // и пишется одним INSERT. Поиск по тегу - функция json_has_tag (см. QuestionJsonFunctions)
+    @JdbcTypeCode(SqlTypes.JSON)
     private List<String> options;
 
     private String correctAnswer;
@@ -28,11 +41,18 @@ public class Question {
     @Column(columnDefinition = "TEXT")
     private String explanation;
 
-    @ElementCollection(fetch = FetchType.EAGER)
-    @CollectionTable(name = "question_tags", joinColumns = @JoinColumn(name = "question_id"))
+    @JdbcTypeCode(SqlTypes.JSON)
     private Set<String> tags;
 
     private String difficulty;
+
+    // Вопрос лежит в пуле заранее сгенерированных и ещё не выдан ни в один тест
+    @Column(nullable = false)
+    private Boolean pooled = false;
+
+    @Column(name = "pool_tag")
+    private String poolTag;
+
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
@@ -59,8 +79,8 @@ public class Question {
         this.options = options;
         this.correctAnswer = correctAnswer;
         this.explanation = explanation;
-        this.tags = tags;
-        this.difficulty = difficulty;
+        this.tags = normalizeTags(tags);
+        this.difficulty = normalizeDifficulty(difficulty);
     }
 
     public Long getId() {
@@ -116,7 +136,7 @@ public class Question {
     }
 
     public void setTags(Set<String> tags) {
-        this.tags = tags;
+        this.tags = normalizeTags(tags);
     }
 
     public String getDifficulty() {
@@ -124,7 +144,51 @@ public class Question {
     }
 
     public void setDifficulty(String difficulty) {
-        this.difficulty = difficulty;
+        this.difficulty = normalizeDifficulty(difficulty);
+    }
+
+    // Сложность хранится в верхнем регистре, чтобы выборки сравнивали её через = и индекс
+    // idx_questions_difficulty независимо от регистра, в котором её прислали клиент или ИИ
+    public static String normalizeDifficulty(String difficulty) {
+        return difficulty == null ? null : difficulty.trim().toUpperCase(Locale.ROOT);
+    }
+
+    // Тег длиннее MAX_TAG_LENGTH MySQL не положит в индекс тегов и отклонит INSERT целиком,
+    // поэтому придуманные ИИ длинные теги обрезаются до записи
+    public static Set<String> normalizeTags(Set<String> tags) {
+        if (tags == null) {
+            return null;
+        }
+        Set<String> normalized = new LinkedHashSet<>();
+        for (String tag : tags) {
+            if (tag == null || tag.isBlank()) {
+                continue;
+            }
+            String trimmed = tag.trim();
+            if (trimmed.length() > MAX_TAG_LENGTH) {
+                int end = Character.isHighSurrogate(trimmed.charAt(MAX_TAG_LENGTH - 1))
+                        ? MAX_TAG_LENGTH - 1 : MAX_TAG_LENGTH;
+                trimmed = trimmed.substring(0, end).trim();
+            }
+            normalized.add(trimmed);
+        }
+        return normalized;
+    }
+
+    public Boolean getPooled() {
+        return pooled;
+    }
+
+    public void setPooled(Boolean pooled) {
+        this.pooled = pooled;
+    }
+
+    public String getPoolTag() {
+        return poolTag;
+    }
+
+    public void setPoolTag(String poolTag) {
+        this.poolTag = poolTag;
     }
 
     public LocalDateTime getCreatedAt() {
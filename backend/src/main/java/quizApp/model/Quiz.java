@@ -1,6 +1,9 @@
 package quizApp.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -8,15 +11,22 @@ import java.util.Set;
 
 @Entity
 @Table(name = "quizzes")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@NamedEntityGraph(name = Quiz.WITH_QUESTIONS, attributeNodes = @NamedAttributeNode("questions"))
 public class Quiz {
+    // План загрузки теста с вопросами одним JOIN; коллекции вопросов догружаются пачками
+    public static final String WITH_QUESTIONS = "Quiz.withQuestions";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "quizzes_seq")
+    @SequenceGenerator(name = "quizzes_seq", sequenceName = "quizzes_seq", allocationSize = 50)
     private Long id;
 
     private String title;
     private String description;
 
-    @ManyToMany(fetch = FetchType.EAGER)
+    @ManyToMany(fetch = FetchType.LAZY)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @JoinTable(
             name = "quiz_questions",
             joinColumns = @JoinColumn(name = "quiz_id"),
@@ -25,6 +35,8 @@ public class Quiz {
     private List<Question> questions;
 
     @ElementCollection
+    @BatchSize(size = 50)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     private Set<String> tags;
 
     private String difficulty;
@@ -1,8 +1,10 @@
 package quizApp.model;
 
 import jakarta.persistence.*;
+import quizApp.utils.AnswerCodec;
 
 import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.Map;
 
 @Entity
@@ -12,7 +14,7 @@ public class QuizResult {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "quiz_id")
     private Quiz quiz;
 
@@ -21,18 +23,37 @@ public class QuizResult {
     private LocalDateTime completedAt;
     private Integer attemptNumber;
 
+    // Ответы одной строкой в quiz_results вместо строки user_answers на каждый вопрос (см. AnswerCodec)
+    @Column(name = "encoded_answers", length = 1000)
+    private String encodedAnswers;
+
+    // Исходный текст ответов, закодированных как AnswerCodec.RAW_ANSWER, по id вопроса.
+    // Читается только для результатов, в которых такие ответы есть
     @ElementCollection
-    @CollectionTable(name = "user_answers", joinColumns = @JoinColumn(name = "result_id"))
-    @MapKeyJoinColumn(name = "question_id")
-    @Column(name = "user_answer")
+    @CollectionTable(name = "quiz_result_raw_answers", joinColumns = @JoinColumn(name = "result_id"))
+    @MapKeyColumn(name = "question_id")
+    @Column(name = "answer")
+    private Map<Long, String> rawAnswers = new HashMap<>();
+
+    // Карта нужна только для подробного разбора и собирается из encodedAnswers при первом обращении
+    @Transient
     private Map<Question, String> userAnswers;
 
     @PrePersist
     protected void onCreate() {
         completedAt = LocalDateTime.now();
+        encodeAnswers();
+    }
+
+    private void encodeAnswers() {
+        if (userAnswers != null && quiz != null && quiz.getQuestions() != null) {
+            encodedAnswers = AnswerCodec.encode(quiz.getQuestions(), userAnswers);
+            rawAnswers.clear();
+            rawAnswers.putAll(AnswerCodec.rawAnswers(quiz.getQuestions(), userAnswers));
+        }
     }
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User user;
 
@@ -98,11 +119,26 @@ public class QuizResult {
     }
 
     public Map<Question, String> getUserAnswers() {
+        if (userAnswers == null && encodedAnswers != null && quiz != null) {
+            userAnswers = AnswerCodec.decode(encodedAnswers, quiz.getQuestions(),
+                    encodedAnswers.indexOf(AnswerCodec.RAW_ANSWER) >= 0 ? rawAnswers : Map.of());
+        }
         return userAnswers;
     }
 
     public void setUserAnswers(Map<Question, String> userAnswers) {
         this.userAnswers = userAnswers;
+        // Transient-поле не делает сущность изменённой - кодируем сразу, если тест уже известен
+        encodeAnswers();
+    }
+
+    public String getEncodedAnswers() {
+        return encodedAnswers;
+    }
+
+    public void setEncodedAnswers(String encodedAnswers) {
+        this.encodedAnswers = encodedAnswers;
+        this.userAnswers = null;
     }
 
     public User getUser() {
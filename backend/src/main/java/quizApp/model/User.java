@@ -23,6 +23,10 @@ public class User {
     @Column(nullable = false)
     private Role role = Role.ROLE_USER;
 
+    // Растёт при смене роли: выданные раньше токены перестают приниматься
+    @Column(name = "token_version", nullable = false)
+    private int tokenVersion;
+
     public User() {
     }
 
@@ -66,4 +70,12 @@ public class User {
     public void setRole(Role role) {
         this.role = role;
     }
+
+    public int getTokenVersion() {
+        return tokenVersion;
+    }
+
+    public void setTokenVersion(int tokenVersion) {
+        this.tokenVersion = tokenVersion;
+    }
 }
\ No newline at end of file
@@ -2,6 +2,7 @@ package quizApp.model.dto;
 
 public class AuthResponse {
     private String token;
+    private String refreshToken;
     private String type = "Bearer";
     private UserDTO userDTO;
 
@@ -10,6 +11,12 @@ public class AuthResponse {
         this.userDTO = userDTO;
     }
 
+    public AuthResponse(String token, String refreshToken, UserDTO userDTO) {
+        this.token = token;
+        this.refreshToken = refreshToken;
+        this.userDTO = userDTO;
+    }
+
     public String getToken() {
         return token;
     }
@@ -18,6 +25,14 @@ public class AuthResponse {
         this.token = token;
     }
 
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+
+    public void setRefreshToken(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+
     public String getType() {
         return type;
     }
@@ -0,0 +1,79 @@
+package quizApp.model.dto;
+
+import quizApp.model.GenerationJobStatus;
+
+import java.time.LocalDateTime;
+
+public class GenerationJobResponse {
+    private String jobId;
+    private GenerationJobStatus status;
+    private QuizResponse quiz;
+    private String error;
+    private LocalDateTime submittedAt;
+    private LocalDateTime finishedAt;
+
+    public GenerationJobResponse() {
+    }
+
+    public GenerationJobResponse(String jobId, GenerationJobStatus status, QuizResponse quiz, String error,
+                                 LocalDateTime submittedAt, LocalDateTime finishedAt) {
+        this.jobId = jobId;
+        this.status = status;
+        this.quiz = quiz;
+        this.error = error;
+        this.submittedAt = submittedAt;
+        this.finishedAt = finishedAt;
+    }
+
+    public boolean isFinished() {
+        return status == GenerationJobStatus.COMPLETED || status == GenerationJobStatus.FAILED;
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public void setJobId(String jobId) {
+        this.jobId = jobId;
+    }
+
+    public GenerationJobStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(GenerationJobStatus status) {
+        this.status = status;
+    }
+
+    public QuizResponse getQuiz() {
+        return quiz;
+    }
+
+    public void setQuiz(QuizResponse quiz) {
+        this.quiz = quiz;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public LocalDateTime getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public void setSubmittedAt(LocalDateTime submittedAt) {
+        this.submittedAt = submittedAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(LocalDateTime finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+}
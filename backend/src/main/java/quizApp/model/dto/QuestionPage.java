@@ -0,0 +1,67 @@
+package quizApp.model.dto;
+
+import quizApp.model.Question;
+
+import java.util.List;
+
+/**
+ * Страница вопросов банка с общим числом подходящих вопросов (COUNT в базе).
+ */
+public class QuestionPage {
+    private List<Question> items;
+    private int page;
+    private int size;
+    private long totalElements;
+    private boolean hasNext;
+
+    public QuestionPage() {
+    }
+
+    public QuestionPage(List<Question> items, int page, int size, long totalElements, boolean hasNext) {
+        this.items = items;
+        this.page = page;
+        this.size = size;
+        this.totalElements = totalElements;
+        this.hasNext = hasNext;
+    }
+
+    public List<Question> getItems() {
+        return items;
+    }
+
+    public void setItems(List<Question> items) {
+        this.items = items;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public void setPage(int page) {
+        this.page = page;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public long getTotalElements() {
+        return totalElements;
+    }
+
+    public void setTotalElements(long totalElements) {
+        this.totalElements = totalElements;
+    }
+
+    public boolean isHasNext() {
+        return hasNext;
+    }
+
+    public void setHasNext(boolean hasNext) {
+        this.hasNext = hasNext;
+    }
+}
@@ -0,0 +1,46 @@
+package quizApp.model.dto;
+
+import java.util.List;
+
+/**
+ * Страница каталога. nextCursor - id последнего теста на странице,
+ * его нужно передать в cursor, чтобы получить следующую.
+ */
+public class QuizCataloguePage {
+    private List<QuizSummary> items;
+    private Long nextCursor;
+    private boolean hasNext;
+
+    public QuizCataloguePage() {
+    }
+
+    public QuizCataloguePage(List<QuizSummary> items, Long nextCursor, boolean hasNext) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.hasNext = hasNext;
+    }
+
+    public List<QuizSummary> getItems() {
+        return items;
+    }
+
+    public void setItems(List<QuizSummary> items) {
+        this.items = items;
+    }
+
+    public Long getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(Long nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isHasNext() {
+        return hasNext;
+    }
+
+    public void setHasNext(boolean hasNext) {
+        this.hasNext = hasNext;
+    }
+}
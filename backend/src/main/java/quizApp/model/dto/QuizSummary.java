@@ -0,0 +1,89 @@
+package quizApp.model.dto;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Строка каталога тестов: без вопросов, только то, что нужно для списка.
+ */
+public class QuizSummary {
+    private Long id;
+    private String title;
+    private String description;
+    private List<String> tags;
+    private String difficulty;
+    private long questionCount;
+    private LocalDateTime createdAt;
+
+    public QuizSummary() {
+    }
+
+    // Используется в JPQL-проекции: теги приходят одной строкой через запятую (listagg)
+    public QuizSummary(Long id, String title, String description, String tags, String difficulty,
+                       Long questionCount, LocalDateTime createdAt) {
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.tags = tags == null || tags.isEmpty() ? List.of() : Arrays.asList(tags.split(","));
+        this.difficulty = difficulty;
+        this.questionCount = questionCount == null ? 0 : questionCount;
+        this.createdAt = createdAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public List<String> getTags() {
+        return tags;
+    }
+
+    public void setTags(List<String> tags) {
+        this.tags = tags;
+    }
+
+    public String getDifficulty() {
+        return difficulty;
+    }
+
+    public void setDifficulty(String difficulty) {
+        this.difficulty = difficulty;
+    }
+
+    public long getQuestionCount() {
+        return questionCount;
+    }
+
+    public void setQuestionCount(long questionCount) {
+        this.questionCount = questionCount;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
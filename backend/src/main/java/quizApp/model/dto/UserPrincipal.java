@@ -13,6 +13,7 @@ public class UserPrincipal implements UserDetails {
     private String email;
     private String password;
     private Role role;
+    private int tokenVersion;
     private Collection<? extends GrantedAuthority> authorities;
 
     public UserPrincipal(Long id, String username, String email, String password,
@@ -25,6 +26,12 @@ public class UserPrincipal implements UserDetails {
         this.authorities = authorities;
     }
 
+    public UserPrincipal(Long id, String username, String email, String password,
+                         Role role, int tokenVersion) {
+        this(id, username, email, password, role, role.getAuthorities());
+        this.tokenVersion = tokenVersion;
+    }
+
     public static UserPrincipal build(User user) {
         return new UserPrincipal(
                 user.getId(),
@@ -32,7 +39,7 @@ public class UserPrincipal implements UserDetails {
                 user.getEmail(),
                 user.getPassword(),
                 user.getRole(),
-                user.getRole().getAuthorities());
+                user.getTokenVersion());
     }
 
 
@@ -48,6 +55,10 @@ public class UserPrincipal implements UserDetails {
         return role;
     }
 
+    public int getTokenVersion() {
+        return tokenVersion;
+    }
+
     @Override
     public String getUsername() {
         return this.email;
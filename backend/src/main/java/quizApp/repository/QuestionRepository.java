@@ -1,27 +1,87 @@
 package quizApp.repository;
 
 
+import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import quizApp.model.Question;
 
 import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 
 @Repository
-public interface QuestionRepository extends JpaRepository<Question, Long> {
+public interface QuestionRepository extends JpaRepository<Question, Long>, QuestionTagCounts {
 
-    @Query("SELECT q FROM Question q JOIN q.tags t WHERE t = :tag AND q.difficulty = :difficulty")
+    // Банк - вопросы с pooled = false. Невыданный запас пула (pooled = true) лежит в той же таблице,
+    // но доступен только QuestionPoolService через findPooledForUpdate.
+    // Выборки по тегу и сложности кэшируются; запись в questions сбрасывает их автоматически.
+    // Теги - JSON-массив в строке вопроса, json_has_tag объявлена в QuestionJsonFunctions
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT q FROM Question q WHERE q.pooled = false AND json_has_tag(q.tags, :tag) AND q.difficulty = :difficulty")
     List<Question> findByTagsInAndDifficulty(
             @Param("tag") String tag,
             @Param("difficulty") String difficulty,
             Pageable pageable
     );
 
-    List<Question> findByTagsContaining(String tag);
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT q FROM Question q WHERE q.pooled = false AND json_has_tag(q.tags, :tag)")
+    List<Question> findByTagsContaining(@Param("tag") String tag);
 
-    @Query("SELECT DISTINCT q.tags FROM Question q")
-    List<String> findAllDistinctTags();
+    @Query(value = "SELECT q FROM Question q WHERE q.pooled = false AND json_has_tag(q.tags, :tag)",
+            countQuery = "SELECT COUNT(q) FROM Question q WHERE q.pooled = false AND json_has_tag(q.tags, :tag)")
+    Page<Question> findByTag(@Param("tag") String tag, Pageable pageable);
+
+    @Query("SELECT COUNT(q) FROM Question q WHERE q.pooled = false AND json_has_tag(q.tags, :tag)")
+    long countByTag(@Param("tag") String tag);
+
+    @Query("SELECT COUNT(q) FROM Question q WHERE q.pooled = false AND json_has_tag(q.tags, :tag) "
+            + "AND q.difficulty = :difficulty")
+    long countByTagAndDifficulty(@Param("tag") String tag, @Param("difficulty") String difficulty);
+
+    // Обе выборки идут по индексу idx_questions_difficulty (difficulty, id)
+    Page<Question> findByDifficultyAndPooledFalse(String difficulty, Pageable pageable);
+
+    long countByDifficultyAndPooledFalse(String difficulty);
+
+    List<Question> findByPooledFalse();
+
+    long countByPooledFalse();
+
+    Optional<Question> findByIdAndPooledFalse(Long id);
+
+    // Массивы разворачиваются в Java: переносимого unnest для JSON в HQL нет
+    default List<String> findAllDistinctTags() {
+        return findAllTagSets().stream()
+                .filter(Objects::nonNull)
+                .flatMap(Set::stream)
+                .distinct()
+                .toList();
+    }
+
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT q.tags FROM Question q WHERE q.pooled = false AND q.tags IS NOT NULL")
+    List<Set<String>> findAllTagSets();
+
+    // SKIP LOCKED: параллельные запросы забирают из пула разные вопросы, не ожидая друг друга
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT q FROM Question q WHERE q.pooled = true AND q.poolTag = :tag AND q.difficulty = :difficulty ORDER BY q.id")
+    List<Question> findPooledForUpdate(
+            @Param("tag") String tag,
+            @Param("difficulty") String difficulty,
+            Pageable pageable
+    );
+
+    long countByPooledTrueAndPoolTagAndDifficulty(String poolTag, String difficulty);
 }
\ No newline at end of file
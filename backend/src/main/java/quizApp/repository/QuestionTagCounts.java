@@ -0,0 +1,14 @@
+package quizApp.repository;
+
+import java.util.List;
+
+/**
+ * Подсчёт вопросов банка по парам тег - сложность, реализация зависит от базы (QuestionTagCountsImpl).
+ */
+public interface QuestionTagCounts {
+
+    /**
+     * Строки (тег, сложность, число вопросов); вопрос с несколькими тегами считается в каждом из них.
+     */
+    List<Object[]> countPerTagAndDifficulty();
+}
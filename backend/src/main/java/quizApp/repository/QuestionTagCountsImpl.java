@@ -0,0 +1,51 @@
+package quizApp.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * В MySQL теги разворачиваются JSON_TABLE и группируются в базе: строк в ответе столько,
+ * сколько разных пар тег - сложность. В остальных базах (H2 в тестах) JSON_TABLE нет -
+ * база группирует по набору тегов, а наборы раскладываются по тегам здесь.
+ */
+class QuestionTagCountsImpl implements QuestionTagCounts {
+
+    static final String MYSQL_QUERY = "SELECT jt.tag, q.difficulty, COUNT(*) FROM questions q, "
+            + "JSON_TABLE(q.tags, '$[*]' COLUMNS (tag VARCHAR(255) PATH '$')) AS jt "
+            + "WHERE q.pooled = false GROUP BY jt.tag, q.difficulty";
+
+    static final String FALLBACK_QUERY = "SELECT q.tags, q.difficulty, COUNT(q) FROM Question q "
+            + "WHERE q.pooled = false AND q.tags IS NOT NULL GROUP BY q.tags, q.difficulty";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Object[]> countPerTagAndDifficulty() {
+        if (entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect() instanceof MySQLDialect) {
+            return entityManager.createNativeQuery(MYSQL_QUERY).getResultList();
+        }
+
+        Map<List<String>, Long> counts = new LinkedHashMap<>();
+        for (Object[] row : entityManager.createQuery(FALLBACK_QUERY, Object[].class).getResultList()) {
+            Set<String> tags = (Set<String>) row[0];
+            for (String tag : tags) {
+                counts.merge(Arrays.asList(tag, (String) row[1]), (Long) row[2], Long::sum);
+            }
+        }
+        List<Object[]> rows = new ArrayList<>(counts.size());
+        counts.forEach((key, count) -> rows.add(new Object[]{key.get(0), key.get(1), count}));
+        return rows;
+    }
+}
@@ -1,10 +1,41 @@
 package quizApp.repository;
 
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import quizApp.model.Quiz;
+import quizApp.model.dto.QuizSummary;
+
+import java.util.List;
 
 @Repository
 public interface QuizRepository extends JpaRepository<Quiz, Long> {
-}
\ No newline at end of file
+
+    // Каталог одним запросом: число вопросов и теги считаются подзапросами, сущности не создаются
+    String SUMMARY_SELECT = """
+            SELECT new quizApp.model.dto.QuizSummary(q.id, q.title, q.description,
+                (SELECT listagg(t, ',') WITHIN GROUP (ORDER BY t) FROM Quiz tq JOIN tq.tags t WHERE tq = q),
+                q.difficulty,
+                (SELECT count(qq) FROM Quiz cq JOIN cq.questions qq WHERE cq = q),
+                q.createdAt)
+            FROM Quiz q
+            """;
+
+    @Query(SUMMARY_SELECT + " ORDER BY q.id DESC")
+    List<QuizSummary> findSummaries(Pageable pageable);
+
+    @Query(SUMMARY_SELECT + " WHERE q.id < :cursor ORDER BY q.id DESC")
+    List<QuizSummary> findSummariesBefore(@Param("cursor") Long cursor, Pageable pageable);
+
+    // Список тестов: вопросы приходят в том же запросе, их варианты и теги - пачками
+    @EntityGraph(Quiz.WITH_QUESTIONS)
+    @Query("SELECT q FROM Quiz q ORDER BY q.id")
+    List<Quiz> findAllWithQuestions();
+
+    @Query("SELECT DISTINCT q.id FROM Quiz q JOIN q.questions qq WHERE qq.id = :questionId")
+    List<Long> findIdsByQuestionId(@Param("questionId") Long questionId);
+}
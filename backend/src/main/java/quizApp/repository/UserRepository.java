@@ -24,4 +24,8 @@ public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByUsername(String username);
 
     boolean existsByEmail(String email);
+
+    // Снимок для TokenVersionTable: [id, tokenVersion], по возрастанию id
+    @Query("SELECT u.id, u.tokenVersion FROM User u ORDER BY u.id")
+    List<Object[]> findTokenVersions();
 }
\ No newline at end of file
@@ -0,0 +1,203 @@
+package quizApp.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import quizApp.exception.AIUnavailableException;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Защита вызовов OpenRouter: circuit breaker по доле ошибок, bulkhead на число
+ * одновременных вызовов и общий дедлайн на каждый вызов.
+ * Пока цепь разомкнута, вызовы сразу получают AIUnavailableException.
+ */
+@Slf4j
+@Component
+public class AICircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${ai.circuit.failure-rate-threshold:50}")
+    private int failureRateThreshold;
+
+    @Value("${ai.circuit.sliding-window-size:20}")
+    private int slidingWindowSize;
+
+    @Value("${ai.circuit.minimum-calls:5}")
+    private int minimumCalls;
+
+    @Value("${ai.circuit.open-duration-ms:30000}")
+    private long openDurationMs;
+
+    @Value("${ai.circuit.half-open-calls:2}")
+    private int halfOpenCalls;
+
+    @Value("${ai.bulkhead.max-wait-ms:500}")
+    private long bulkheadMaxWaitMs;
+
+    @Value("${ai.call.timeout-ms:120000}")
+    private long callTimeoutMs;
+
+    private Semaphore bulkhead;
+
+    @Value("${ai.bulkhead.max-concurrent-calls:10}")
+    void setMaxConcurrentCalls(int maxConcurrentCalls) {
+        this.bulkhead = new Semaphore(Math.max(1, maxConcurrentCalls));
+        Gauge.builder("ai.bulkhead.available", bulkhead, Semaphore::availablePermits)
+                .description("Свободные слоты для вызовов AI")
+                .register(meterRegistry);
+        Gauge.builder("ai.circuit.state", this, breaker -> breaker.getState().ordinal())
+                .description("Состояние circuit breaker: 0 - CLOSED, 1 - OPEN, 2 - HALF_OPEN")
+                .register(meterRegistry);
+    }
+
+    private final ExecutorService callExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Deque<Boolean> outcomes = new ArrayDeque<>();
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int halfOpenInFlight;
+    private int halfOpenSuccesses;
+
+    public <T> T execute(Callable<T> call) throws Exception {
+        acquirePermission();
+
+        if (!bulkhead.tryAcquire(bulkheadMaxWaitMs, TimeUnit.MILLISECONDS)) {
+            releaseHalfOpenSlot();
+            meterRegistry.counter("ai.calls", "outcome", "rejected").increment();
+            throw new AIUnavailableException("Too many concurrent AI calls");
+        }
+
+        try {
+            T result = callWithDeadline(call);
+            onSuccess();
+            meterRegistry.counter("ai.calls", "outcome", "success").increment();
+            return result;
+        } catch (InterruptedException e) {
+            // Вызов отменили снаружи (например, проигравший hedge-запрос) - это не сбой AI
+            releaseHalfOpenSlot();
+            meterRegistry.counter("ai.calls", "outcome", "cancelled").increment();
+            throw e;
+        } catch (Exception e) {
+            onFailure();
+            meterRegistry.counter("ai.calls", "outcome", "failure").increment();
+            throw e;
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    private <T> T callWithDeadline(Callable<T> call) throws Exception {
+        Future<T> future = callExecutor.submit(call);
+        try {
+            return future.get(callTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new TimeoutException("AI call exceeded deadline of " + callTimeoutMs + " ms");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            throw e;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private synchronized void acquirePermission() {
+        if (state == State.OPEN) {
+            if (System.currentTimeMillis() - openedAt < openDurationMs) {
+                meterRegistry.counter("ai.calls", "outcome", "short_circuited").increment();
+                throw new AIUnavailableException("AI circuit breaker is open");
+            }
+            transitionTo(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenInFlight >= halfOpenCalls) {
+                meterRegistry.counter("ai.calls", "outcome", "short_circuited").increment();
+                throw new AIUnavailableException("AI circuit breaker is half-open, trial calls in progress");
+            }
+            halfOpenInFlight++;
+        }
+    }
+
+    private synchronized void releaseHalfOpenSlot() {
+        if (state == State.HALF_OPEN && halfOpenInFlight > 0) {
+            halfOpenInFlight--;
+        }
+    }
+
+    private synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            halfOpenInFlight--;
+            if (++halfOpenSuccesses >= halfOpenCalls) {
+                transitionTo(State.CLOSED);
+            }
+            return;
+        }
+        record(true);
+    }
+
+    private synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            transitionTo(State.OPEN);
+            return;
+        }
+        record(false);
+        if (state == State.CLOSED && outcomes.size() >= minimumCalls && failureRate() >= failureRateThreshold) {
+            transitionTo(State.OPEN);
+        }
+    }
+
+    private void record(boolean success) {
+        outcomes.addLast(success);
+        while (outcomes.size() > Math.max(1, slidingWindowSize)) {
+            outcomes.removeFirst();
+        }
+    }
+
+    private int failureRate() {
+        long failures = outcomes.stream().filter(success -> !success).count();
+        return (int) (failures * 100 / outcomes.size());
+    }
+
+    private void transitionTo(State next) {
+        State previous = state;
+        state = next;
+        switch (next) {
+            case OPEN -> openedAt = System.currentTimeMillis();
+            case HALF_OPEN -> {
+                halfOpenInFlight = 0;
+                halfOpenSuccesses = 0;
+            }
+            case CLOSED -> outcomes.clear();
+        }
+        log.warn("AI circuit breaker {} -> {}", previous, next);
+        meterRegistry.counter("ai.circuit.transitions", "from", previous.name(), "to", next.name()).increment();
+    }
+}
@@ -0,0 +1,259 @@
+package quizApp.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import quizApp.exception.AIUnavailableException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Выбор модели для запроса к AI. По каждой модели из ai.api.models считаются
+ * скользящие p50/p95 задержки и доля ошибок; запрос уходит самой быстрой здоровой модели.
+ * Если ответа нет дольше hedge-after-ms, параллельно запускается следующая модель,
+ * при ошибке - следующая по цепочке, всего не больше max-attempts попыток.
+ */
+@Slf4j
+@Component
+public class AIModelRouter {
+
+    @FunctionalInterface
+    public interface ModelCall<T> {
+        T call(String model) throws Exception;
+    }
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${ai.routing.hedge-after-ms:30000}")
+    private long hedgeAfterMs;
+
+    @Value("${ai.routing.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${ai.routing.window-size:50}")
+    private int windowSize;
+
+    @Value("${ai.routing.minimum-calls:3}")
+    private int minimumCalls;
+
+    @Value("${ai.routing.max-error-rate:50}")
+    private int maxErrorRate;
+
+    private final Map<String, ModelStats> stats = new LinkedHashMap<>();
+    private final ExecutorService attemptExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @Value("${ai.api.models:${ai.api.model}}")
+    void setModels(List<String> models) {
+        stats.clear();
+        models.stream()
+                .map(String::trim)
+                .filter(model -> !model.isEmpty())
+                .distinct()
+                .forEach(model -> {
+                    ModelStats modelStats = new ModelStats();
+                    stats.put(model, modelStats);
+                    Gauge.builder("ai.model.latency.p50", modelStats, s -> s.percentileMs(0.50))
+                            .description("Скользящая медиана задержки модели, мс")
+                            .tag("model", model)
+                            .register(meterRegistry);
+                    Gauge.builder("ai.model.latency.p95", modelStats, s -> s.percentileMs(0.95))
+                            .description("Скользящий p95 задержки модели, мс")
+                            .tag("model", model)
+                            .register(meterRegistry);
+                    Gauge.builder("ai.model.error.rate", modelStats, s -> s.errorRate())
+                            .description("Доля ошибок модели в скользящем окне, %")
+                            .tag("model", model)
+                            .register(meterRegistry);
+                });
+        if (stats.isEmpty()) {
+            throw new IllegalArgumentException("At least one AI model must be configured");
+        }
+    }
+
+    /**
+     * Модели в порядке выбора: сначала здоровые по возрастанию p50 (без замеров - в порядке конфигурации),
+     * затем модели с высокой долей ошибок.
+     */
+    public List<String> rankedModels() {
+        List<String> models = new ArrayList<>(stats.keySet());
+        models.sort(Comparator
+                .comparing((String model) -> !isHealthy(model))
+                .thenComparingDouble(model -> {
+                    double p50 = stats.get(model).percentileMs(0.50);
+                    return Double.isNaN(p50) ? Double.MAX_VALUE : p50;
+                }));
+        return models;
+    }
+
+    /**
+     * Первые max-attempts моделей из rankedModels - цепочка для последовательных попыток.
+     */
+    public List<String> fallbackChain() {
+        List<String> ranked = rankedModels();
+        return ranked.subList(0, Math.min(ranked.size(), Math.max(1, maxAttempts)));
+    }
+
+    public <T> T execute(ModelCall<T> call) throws Exception {
+        List<String> ranked = fallbackChain();
+        int attempts = ranked.size();
+        ExecutorCompletionService<T> completion = new ExecutorCompletionService<>(attemptExecutor);
+        Map<Future<T>, String> running = new LinkedHashMap<>();
+
+        int started = 0;
+        Exception lastError = null;
+        try {
+            running.put(completion.submit(() -> timed(ranked.get(0), call)), ranked.get(0));
+            started++;
+
+            while (!running.isEmpty()) {
+                boolean canStartMore = started < attempts;
+                Future<T> done = canStartMore
+                        ? completion.poll(hedgeAfterMs, TimeUnit.MILLISECONDS)
+                        : completion.take();
+
+                if (done == null) {
+                    // Первая модель не уложилась в бюджет - подстраховываемся следующей
+                    String hedge = ranked.get(started++);
+                    log.info("AI model {} is slower than {} ms, hedging with {}", running.values(), hedgeAfterMs, hedge);
+                    meterRegistry.counter("ai.model.hedges", "model", hedge).increment();
+                    running.put(completion.submit(() -> timed(hedge, call)), hedge);
+                    continue;
+                }
+
+                String model = running.remove(done);
+                try {
+                    T result = done.get();
+                    if (started > 1) {
+                        log.info("AI request served by {} after {} attempts", model, started);
+                    }
+                    return result;
+                } catch (ExecutionException e) {
+                    Exception cause = e.getCause() instanceof Exception ex ? ex : e;
+                    if (cause instanceof AIUnavailableException) {
+                        // Цепь разомкнута - другие модели тоже идут через OpenRouter
+                        throw cause;
+                    }
+                    lastError = cause;
+                    log.warn("AI model {} failed: {}", model, cause.getMessage());
+                    if (started < attempts) {
+                        String fallback = ranked.get(started++);
+                        meterRegistry.counter("ai.model.fallbacks", "model", fallback).increment();
+                        running.put(completion.submit(() -> timed(fallback, call)), fallback);
+                    }
+                }
+            }
+            throw lastError;
+        } finally {
+            // Проигравшие попытки больше не нужны
+            running.keySet().forEach(future -> future.cancel(true));
+        }
+    }
+
+    /**
+     * Для вызовов, где задержку сравнивать нельзя (потоковый режим), учитывается только исход.
+     */
+    public void recordOutcome(String model, boolean success) {
+        ModelStats modelStats = stats.get(model);
+        if (modelStats != null) {
+            modelStats.record(-1, success);
+        }
+    }
+
+    private <T> T timed(String model, ModelCall<T> call) throws Exception {
+        long startedAt = System.nanoTime();
+        String outcome = "success";
+        try {
+            return call.call(model);
+        } catch (InterruptedException | CancellationException e) {
+            // Отменённый hedge-запрос не считается ошибкой модели
+            outcome = "cancelled";
+            throw e;
+        } catch (AIUnavailableException e) {
+            outcome = "rejected";
+            throw e;
+        } catch (Exception e) {
+            outcome = "failure";
+            throw e;
+        } finally {
+            long elapsed = System.nanoTime() - startedAt;
+            if (outcome.equals("success") || outcome.equals("failure")) {
+                stats.get(model).record(outcome.equals("success") ? elapsed : -1, outcome.equals("success"));
+            }
+            Timer.builder("ai.model.latency")
+                    .description("Задержка запросов к модели по исходу")
+                    .tag("model", model)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry)
+                    .record(elapsed, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private boolean isHealthy(String model) {
+        ModelStats modelStats = stats.get(model);
+        return modelStats.calls() < minimumCalls || modelStats.errorRate() < maxErrorRate;
+    }
+
+    private class ModelStats {
+        private final long[] latencies = new long[Math.max(1, windowSize)];
+        private final boolean[] outcomes = new boolean[Math.max(1, windowSize)];
+        private int latencyCount;
+        private int latencyNext;
+        private int outcomeCount;
+        private int outcomeNext;
+
+        synchronized void record(long latencyNanos, boolean success) {
+            if (latencyNanos >= 0) {
+                latencies[latencyNext] = latencyNanos;
+                latencyNext = (latencyNext + 1) % latencies.length;
+                latencyCount = Math.min(latencyCount + 1, latencies.length);
+            }
+            outcomes[outcomeNext] = success;
+            outcomeNext = (outcomeNext + 1) % outcomes.length;
+            outcomeCount = Math.min(outcomeCount + 1, outcomes.length);
+        }
+
+        synchronized int calls() {
+            return outcomeCount;
+        }
+
+        synchronized double errorRate() {
+            if (outcomeCount == 0) {
+                return 0;
+            }
+            int failures = 0;
+            for (int i = 0; i < outcomeCount; i++) {
+                if (!outcomes[i]) {
+                    failures++;
+                }
+            }
+            return failures * 100.0 / outcomeCount;
+        }
+
+        synchronized double percentileMs(double percentile) {
+            if (latencyCount == 0) {
+                return Double.NaN;
+            }
+            long[] sorted = Arrays.copyOf(latencies, latencyCount);
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(percentile * sorted.length) - 1;
+            return sorted[Math.max(0, index)] / 1_000_000.0;
+        }
+    }
+}
@@ -2,17 +2,37 @@ package quizApp.service;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+import quizApp.exception.AIUnavailableException;
 import quizApp.model.Question;
 import quizApp.model.QuestionType;
 import quizApp.repository.QuestionRepository;
-
+import quizApp.utils.AIHttpClient;
+import quizApp.utils.AIResponseReader;
+import quizApp.utils.QuestionStreamExtractor;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 @Service
 @Slf4j
@@ -24,32 +44,298 @@ public class AIService {
     @Value("${ai.api.url}")
     private String apiUrl;
 
-    @Value("${ai.api.model}")
-    private String model;
     @Autowired
-    private RestTemplate restTemplate;
+    private AIHttpClient aiHttpClient;
     @Autowired
     private ObjectMapper objectMapper;
     @Autowired
     private QuestionRepository questionRepository;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private AICircuitBreaker circuitBreaker;
+    @Autowired
+    private AIModelRouter modelRouter;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // Большие тесты режутся на части по fanOutChunkSize вопросов и генерируются параллельно
+    @Value("${ai.fanout.chunk-size:5}")
+    private int fanOutChunkSize;
 
+    // Общий на всё приложение лимит одновременных запросов частей к OpenRouter
+    private Semaphore fanOutPermits;
+
+    @Value("${ai.fanout.max-concurrency:8}")
+    void setFanOutMaxConcurrency(int maxConcurrency) {
+        this.fanOutPermits = new Semaphore(Math.max(1, maxConcurrency));
+    }
+
+    // Одинаковые запросы, пришедшие одновременно, ждут один общий вызов OpenRouter
+    private final Map<GenerationKey, CompletableFuture<List<Question>>> inFlight = new ConcurrentHashMap<>();
+
+    private record GenerationKey(String topics, String difficulty, int questionCount) {
+
+        static GenerationKey of(String topics, String difficulty, int questionCount) {
+            String normalizedTopics = Arrays.stream(String.valueOf(topics).split(","))
+                    .map(topic -> topic.trim().toLowerCase(Locale.ROOT))
+                    .filter(topic -> !topic.isEmpty())
+                    .sorted()
+                    .distinct()
+                    .collect(Collectors.joining(","));
+            String normalizedDifficulty = String.valueOf(difficulty).trim().toUpperCase(Locale.ROOT);
+            return new GenerationKey(normalizedTopics, normalizedDifficulty, questionCount);
+        }
+    }
 
     public List<Question> generateQuizQuestions(String topics, String difficulty, int questionCount) {
+        try {
+            return requestQuizQuestions(topics, difficulty, questionCount);
+        } catch (AIUnavailableException e) {
+            log.warn("AI is unavailable ({}), assembling questions from the question bank", e.getMessage());
+            return questionBankFallback(topics, difficulty, questionCount);
+        } catch (Exception e) {
+            log.warn("AI Service error: {}", e.getMessage());
+            e.printStackTrace();
+            return questionBankFallback(topics, difficulty, questionCount);
+        }
+    }
+
+    /**
+     * То же, что generateQuizQuestions, но без подстановки запасных вопросов:
+     * ошибка AI пробрасывается вызывающему (нужно, например, для пула вопросов).
+     */
+    public List<Question> requestQuizQuestions(String topics, String difficulty, int questionCount) throws Exception {
+        GenerationKey key = GenerationKey.of(topics, difficulty, questionCount);
+        CompletableFuture<List<Question>> call = new CompletableFuture<>();
+        CompletableFuture<List<Question>> existing = inFlight.putIfAbsent(key, call);
+
+        if (existing != null) {
+            log.info("Joining in-flight AI generation for {}", key);
+            meterRegistry.counter("ai.generation.requests", "mode", "coalesced").increment();
+            return copyQuestions(awaitShared(existing));
+        }
+
+        meterRegistry.counter("ai.generation.requests", "mode", "leader").increment();
+        try {
+            List<Question> questions = shouldFanOut(questionCount)
+                    ? fanOut(topics, difficulty, questionCount)
+                    : callAndParse(topics, difficulty, questionCount, null);
+            call.complete(questions);
+            // Каждый вызывающий получает свои копии: сущности потом сохраняются независимо
+            return copyQuestions(questions);
+        } catch (Exception e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    private List<Question> callAndParse(String topics, String difficulty, int questionCount, String partNote)
+            throws Exception {
         log.info("Generating questions with prompt: {} ", topics);
         String fullPrompt = createPrompt(topics, difficulty, questionCount);
+        if (partNote != null) {
+            fullPrompt = fullPrompt + partNote;
+        }
 
-        try {
-            String response = callAIAPI(fullPrompt);
+        String prompt = fullPrompt;
+        // Модель, ответившая мусором, считается ошибкой: роутер перейдёт к следующей
+        return modelRouter.execute(model -> {
+            String response = callAIAPI(prompt, model);
             if (response == null) {
                 throw new Exception("OpenRouter API returned null response");
             }
-            log.info("OpenRouter response received");
+            log.info("OpenRouter response received from {}", model);
 
-            return parseAIResponse(response);
-        } catch (Exception e) {
-            log.warn("AI Service error: {}", e.getMessage());
-            e.printStackTrace();
-            return createFallbackQuestions();
+            List<Question> questions = parseAIResponse(response);
+            if (questions.isEmpty()) {
+                throw new Exception("Model " + model + " returned no questions");
+            }
+            return questions;
+        });
+    }
+
+    private boolean shouldFanOut(int questionCount) {
+        return fanOutChunkSize > 0 && fanOutPermits != null && questionCount > fanOutChunkSize;
+    }
+
+    /**
+     * Делит запрос на части, запускает их на виртуальных потоках и склеивает результат.
+     * Упавшие части не валят весь тест: пользователь получает то, что успело сгенерироваться.
+     */
+    private List<Question> fanOut(String topics, String difficulty, int questionCount) throws Exception {
+        List<String> topicList = Arrays.stream(topics.split(","))
+                .map(String::trim)
+                .filter(topic -> !topic.isEmpty())
+                .toList();
+        int parts = (questionCount + fanOutChunkSize - 1) / fanOutChunkSize;
+        log.info("Fanning out {} questions into {} parts", questionCount, parts);
+
+        List<Future<List<Question>>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int part = 0; part < parts; part++) {
+                int partCount = Math.min(fanOutChunkSize, questionCount - part * fanOutChunkSize);
+                String partTopics = topicsForPart(topicList, part, parts, topics);
+                String partNote = "\nЭто часть %d из %d одного теста: вопросы должны отличаться от других частей.\n"
+                        .formatted(part + 1, parts);
+                futures.add(executor.submit(() -> callPart(partTopics, difficulty, partCount, partNote)));
+            }
+        }
+
+        Map<String, Question> unique = new LinkedHashMap<>();
+        Exception firstFailure = null;
+        int failedParts = 0;
+        for (Future<List<Question>> future : futures) {
+            try {
+                for (Question question : future.get()) {
+                    String textKey = String.valueOf(question.getText()).trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+                    unique.putIfAbsent(textKey, question);
+                }
+            } catch (ExecutionException e) {
+                failedParts++;
+                if (firstFailure == null) {
+                    firstFailure = e.getCause() instanceof Exception cause ? cause : e;
+                }
+            }
+        }
+
+        if (unique.isEmpty() && firstFailure != null) {
+            throw firstFailure;
+        }
+        if (failedParts > 0) {
+            log.warn("{} of {} generation parts failed, returning partial result", failedParts, parts);
+        }
+        meterRegistry.counter("ai.generation.fanout.parts", "outcome", "failure").increment(failedParts);
+        meterRegistry.counter("ai.generation.fanout.parts", "outcome", "success").increment(parts - failedParts);
+
+        return unique.values().stream()
+                .limit(questionCount)
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    private List<Question> callPart(String topics, String difficulty, int questionCount, String partNote)
+            throws Exception {
+        fanOutPermits.acquire();
+        try {
+            return callAndParse(topics, difficulty, questionCount, partNote);
+        } finally {
+            fanOutPermits.release();
+        }
+    }
+
+    // Теги раскладываются по частям по кругу, чтобы каждая часть была сфокусирована на своих темах
+    private String topicsForPart(List<String> topicList, int part, int parts, String allTopics) {
+        if (topicList.size() < 2) {
+            return allTopics;
+        }
+        if (topicList.size() < parts) {
+            return topicList.get(part % topicList.size());
+        }
+        List<String> partTopics = new ArrayList<>();
+        for (int i = part; i < topicList.size(); i += parts) {
+            partTopics.add(topicList.get(i));
+        }
+        return String.join(", ", partTopics);
+    }
+
+    private List<Question> awaitShared(CompletableFuture<List<Question>> shared) throws Exception {
+        try {
+            return shared.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private List<Question> copyQuestions(List<Question> questions) {
+        return questions.stream()
+                .map(q -> new Question(q.getText(), q.getType(),
+                        q.getOptions() == null ? null : new ArrayList<>(q.getOptions()),
+                        q.getCorrectAnswer(), q.getExplanation(),
+                        q.getTags() == null ? null : new HashSet<>(q.getTags()),
+                        q.getDifficulty()))
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    /**
+     * Потоковый режим: запрашивает completion со stream=true и отдаёт каждый вопрос
+     * в onQuestion, как только модель закончила его JSON-объект.
+     */
+    public List<Question> streamQuizQuestions(String topics, String difficulty, int questionCount,
+                                              Consumer<Question> onQuestion) {
+        log.info("Streaming questions with prompt: {} ", topics);
+        String fullPrompt = createPrompt(topics, difficulty, questionCount);
+        List<Question> questions = new ArrayList<>();
+
+        AIResponseReader responseReader = new AIResponseReader(objectMapper.getFactory());
+        QuestionStreamExtractor extractor = new QuestionStreamExtractor(json -> {
+            try {
+                Question question = responseReader.readQuestion(json);
+                questions.add(question);
+                log.info("Streamed question: {}", question.getText());
+                onQuestion.accept(question);
+            } catch (IOException e) {
+                log.warn("Error parsing streamed question: {} ", e.getMessage());
+            }
+        });
+
+        // Поток не хеджируем: ответ уже уходит пользователю. При ошибке до первого вопроса берём следующую модель
+        for (String model : modelRouter.fallbackChain()) {
+            try {
+                HttpHeaders headers = createHeaders();
+                headers.setAccept(List.of(MediaType.TEXT_EVENT_STREAM));
+                String requestBody = objectMapper.writeValueAsString(createRequestBody(fullPrompt, model, true));
+                circuitBreaker.execute(() -> aiHttpClient.postForStream(apiUrl, headers, requestBody, body -> {
+                    readCompletionStream(body, extractor);
+                    return null;
+                }));
+                modelRouter.recordOutcome(model, !questions.isEmpty());
+            } catch (AIUnavailableException e) {
+                log.warn("AI is unavailable for streaming: {}", e.getMessage());
+                break;
+            } catch (Exception e) {
+                modelRouter.recordOutcome(model, false);
+                log.warn("AI streaming error from {} after {} questions: {}", model, questions.size(), e.getMessage());
+            }
+            if (!questions.isEmpty()) {
+                break;
+            }
+        }
+
+        if (questions.isEmpty()) {
+            List<Question> fallback = questionBankFallback(topics, difficulty, questionCount);
+            fallback.forEach(onQuestion);
+            return fallback;
+        }
+        log.info("Successfully streamed {} questions", questions.size());
+        return questions;
+    }
+
+    private void readCompletionStream(InputStream body, QuestionStreamExtractor extractor) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null && !extractor.isFinished()) {
+            // SSE-комментарии вида ": OPENROUTER PROCESSING" и пустые строки пропускаем
+            if (!line.startsWith("data:")) {
+                continue;
+            }
+            String data = line.substring(5).trim();
+            if ("[DONE]".equals(data)) {
+                break;
+            }
+
+            JsonNode chunk = objectMapper.readTree(data);
+            if (chunk.has("error")) {
+                throw new IOException("OpenRouter error: " + chunk.path("error").path("message").asText());
+            }
+            String delta = chunk.path("choices").path(0).path("delta").path("content").asText("");
+            if (!delta.isEmpty()) {
+                extractor.append(delta);
+            }
         }
     }
 
@@ -82,110 +368,98 @@ public class AIService {
                     }
                   ]
                 }
-                """.formatted(questionCount, difficulty, topics);
+                """.formatted(questionCount, topics, difficulty);
     }
 
-    private String callAIAPI(String prompt) {
-        try {
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.set("Authorization", "Bearer " + apiKey);
-            headers.set("HTTP-Referer", "http://localhost:8080");
-            headers.set("X-Title", "Java Quiz App");
+    private HttpHeaders createHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set("Authorization", "Bearer " + apiKey);
+        headers.set("HTTP-Referer", "http://localhost:8080");
+        headers.set("X-Title", "Java Quiz App");
+        return headers;
+    }
 
-            Map<String, Object> requestBody = new HashMap<>();
-            requestBody.put("model", model);
-            requestBody.put("messages", List.of(Map.of("role", "user", "content", prompt)));
-            requestBody.put("max_tokens", 4000);
-            requestBody.put("temperature", 0.7);
-            requestBody.put("top_p", 0.9);
+    private Map<String, Object> createRequestBody(String prompt, String model, boolean stream) {
+        Map<String, Object> requestBody = new HashMap<>();
+        requestBody.put("model", model);
+        requestBody.put("messages", List.of(Map.of("role", "user", "content", prompt)));
+        requestBody.put("max_tokens", 4000);
+        requestBody.put("temperature", 0.7);
+        requestBody.put("top_p", 0.9);
+        if (stream) {
+            requestBody.put("stream", true);
+        }
+        return requestBody;
+    }
 
-            log.info("Sending request to OpenRouter with model: {}", model);
+    private String callAIAPI(String prompt, String model) throws Exception {
+        HttpHeaders headers = createHeaders();
+        String requestBody = objectMapper.writeValueAsString(createRequestBody(prompt, model, false));
 
-            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(requestBody, headers);
-            ResponseEntity<String> response = restTemplate.exchange(
-                    apiUrl, HttpMethod.POST, entity, String.class
-            );
+        log.info("Sending request to OpenRouter with model: {}", model);
 
-            log.info("OpenRouter response status: {} ", response.getStatusCode());
-            return response.getBody();
+        try {
+            String response = circuitBreaker.execute(() -> aiHttpClient.post(apiUrl, headers, requestBody));
 
+            log.info("OpenRouter response received, connections: {}", aiHttpClient.getStats());
+            return response;
+        } catch (AIUnavailableException e) {
+            throw e;
         } catch (Exception e) {
             log.warn("OpenRouter API call failed: {}", e.getMessage());
-            e.printStackTrace();
-            return null;
+            throw e;
         }
     }
 
     private List<Question> parseAIResponse(String response) throws Exception {
         log.info("Parsing AI response: {} ", response.substring(0, Math.min(200, response.length())) + "...");
 
-        JsonNode root = objectMapper.readTree(response);
+        AIResponseReader reader = new AIResponseReader(objectMapper.getFactory());
+        AIResponseReader.Completion completion = reader.readCompletion(response);
 
-        if (root.has("error")) {
-            String error = root.path("error").path("message").asText();
-            throw new Exception("OpenRouter error: " + error);
+        if (completion.error() != null) {
+            throw new Exception("OpenRouter error: " + completion.error());
         }
-
-        JsonNode choices = root.path("choices");
-        if (choices.isEmpty()) {
+        if (completion.content() == null) {
             throw new Exception("No choices in response");
         }
 
-        String content = choices.get(0).path("message").path("content").asText();
+        String content = completion.content();
         log.info("AI response content: {} ", content.substring(0, Math.min(200, content.length())) + "...");
 
-        String jsonContent = extractJsonFromResponse(content);
-
-        JsonNode contentNode = objectMapper.readTree(jsonContent);
-        JsonNode questionsNode = contentNode.path("questions");
-
-        List<Question> questions = new ArrayList<>();
-
-        for (JsonNode questionNode : questionsNode) {
-            try {
-                Question question = new Question();
-                question.setText(questionNode.path("text").asText());
-
-                String typeStr = questionNode.path("type").asText().toUpperCase();
-                try {
-                    question.setType(QuestionType.valueOf(typeStr));
-                } catch (IllegalArgumentException e) {
-                    question.setType(QuestionType.THEORY); // значение по умолчанию
-                }
-
-                List<String> options = new ArrayList<>();
-                questionNode.path("options").forEach(option -> options.add(option.asText()));
-                question.setOptions(options);
-
-                question.setCorrectAnswer(questionNode.path("correctAnswer").asText());
-                question.setExplanation(questionNode.path("explanation").asText());
-
-                Set<String> tags = new HashSet<>();
-                questionNode.path("tags").forEach(tag -> tags.add(tag.asText()));
-                question.setTags(tags);
-
-                question.setDifficulty(questionNode.path("difficulty").asText("JUNIOR"));
-
-                questions.add(question);
-                log.info("Parsed question: {}", question.getText());
-
-            } catch (Exception e) {
-                log.warn("Error parsing question: {} ", e.getMessage());
-            }
-        }
+        List<Question> questions = reader.readQuestions(content);
+        questions.forEach(question -> log.info("Parsed question: {}", question.getText()));
         log.info("Successfully parsed {} questions", questions.size());
         return questions;
     }
 
-    private String extractJsonFromResponse(String content) {
-        int jsonStart = content.indexOf('{');
-        int jsonEnd = content.lastIndexOf('}');
+    private List<Question> questionBankFallback(String topics, String difficulty, int questionCount) {
+        Map<Long, Question> found = new LinkedHashMap<>();
+        String bankDifficulty = Question.normalizeDifficulty(difficulty);
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (String tag : String.valueOf(topics).split(",")) {
+                    if (found.size() >= questionCount || tag.isBlank()) {
+                        continue;
+                    }
+                    questionRepository.findByTagsInAndDifficulty(tag.trim(), bankDifficulty, PageRequest.of(0, questionCount))
+                            .stream()
+                            .filter(question -> !Boolean.TRUE.equals(question.getPooled()))
+                            .forEach(question -> found.putIfAbsent(question.getId(), question));
+                }
+            });
+        } catch (Exception e) {
+            log.warn("Question bank lookup failed: {}", e.getMessage());
+        }
 
-        if (jsonStart != -1 && jsonEnd != -1 && jsonEnd > jsonStart) {
-            return content.substring(jsonStart, jsonEnd + 1);
+        if (found.isEmpty()) {
+            return createFallbackQuestions();
         }
-        return content;
+        log.info("Using {} questions from the question bank", Math.min(found.size(), questionCount));
+        return found.values().stream()
+                .limit(questionCount)
+                .collect(Collectors.toCollection(ArrayList::new));
     }
 
     private List<Question> createFallbackQuestions() {
@@ -246,10 +520,10 @@ public class AIService {
             log.info("Quizing OpenRouter connection...");
             log.info("API Key: {}", apiKey != null ? "SET" : "MISSING");
             log.info("API URL: {}", apiUrl);
-            log.info("Model: {}", model);
+            log.info("Models: {}", modelRouter.rankedModels());
 
             String quizPrompt = "Ответь просто 'OK'";
-            String response = callAIAPI(quizPrompt);
+            String response = modelRouter.execute(model -> callAIAPI(quizPrompt, model));
 
             if (response != null) {
                 log.info("OpenRouter connection quiz: SUCCESS");
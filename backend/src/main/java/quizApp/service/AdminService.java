@@ -21,6 +21,15 @@ public class AdminService {
     @Autowired
     private UserMapper userMapper;
 
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private TokenVersionTable tokenVersions;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
     @Transactional(readOnly = true)
     public List<UserDTO> getAllUsers() {
         List<User> users = userRepository.findAll();
@@ -51,7 +60,10 @@ public class AdminService {
             Role role = Role.valueOf(newRole.trim().toUpperCase());
 
             user.setRole(role);
+            user.setTokenVersion(user.getTokenVersion() + 1);
             User updatedUser = userRepository.save(user);
+            principalCache.evictAfterCommit(user.getEmail());
+            tokenVersions.markChangedAfterCommit(user.getId(), user.getTokenVersion());
             return userMapper.toDTO(updatedUser);
         } catch (IllegalArgumentException e) {
             throw new IllegalArgumentException("Invalid role: " + newRole + ". Valid roles are: ROLE_USER, ROLE_ADMIN");
@@ -61,6 +73,9 @@ public class AdminService {
     public void deleteUser(Long id) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
+        refreshTokenService.deleteAllForUser(user.getId());
         userRepository.delete(user);
+        principalCache.evictAfterCommit(user.getEmail());
+        tokenVersions.markDeletedAfterCommit(user.getId());
     }
 }
\ No newline at end of file
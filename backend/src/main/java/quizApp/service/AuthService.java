@@ -12,6 +12,7 @@ import quizApp.model.dto.AuthResponse;
 import quizApp.model.dto.LoginRequest;
 import quizApp.model.dto.RegisterRequest;
 import quizApp.model.dto.UserDTO;
+import quizApp.model.dto.UserPrincipal;
 
 import quizApp.repository.UserRepository;
 import quizApp.utils.JwtUtils;
@@ -35,6 +36,9 @@ public class AuthService {
     @Autowired
     private UserMapper userMapper;
 
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
     public AuthResponse register(RegisterRequest request) {
         if (userRepository.existsByEmail(request.getEmail())) {
             throw new RuntimeException("Email already exists");
@@ -51,19 +55,17 @@ public class AuthService {
 
         User savedUser = userRepository.save(user);
 
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(
-                        request.getEmail(),
-                        request.getPassword()
-                )
-        );
+        // Пароль только что захэширован: повторная проверка через authenticationManager - лишний BCrypt
+        UserPrincipal principal = UserPrincipal.build(savedUser);
+        Authentication authentication = new UsernamePasswordAuthenticationToken(
+                principal, null, principal.getAuthorities());
 
         SecurityContextHolder.getContext().setAuthentication(authentication);
         String jwt = jwtUtils.generateJwtToken(authentication);
 
         UserDTO userDTO = userMapper.toDTO(savedUser);
 
-        return new AuthResponse(jwt, userDTO);
+        return new AuthResponse(jwt, refreshTokenService.issue(savedUser), userDTO);
     }
 
     public AuthResponse login(LoginRequest request) {
@@ -82,6 +84,23 @@ public class AuthService {
 
         UserDTO userDTO = userMapper.toDTO(user);
 
-        return new AuthResponse(jwt, userDTO);
+        return new AuthResponse(jwt, refreshTokenService.issue(user), userDTO);
+    }
+
+    /**
+     * Новая пара токенов в обмен на refresh-токен. Роль и версия токена берутся из базы,
+     * так что смена роли применяется при первом же обновлении.
+     */
+    public AuthResponse refresh(String refreshToken) {
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(refreshToken);
+        UserPrincipal principal = UserPrincipal.build(rotation.user());
+        String jwt = jwtUtils.generateJwtToken(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+
+        return new AuthResponse(jwt, rotation.refreshToken(), userMapper.toDTO(rotation.user()));
+    }
+
+    public void logout(String refreshToken) {
+        refreshTokenService.revoke(refreshToken);
     }
 }
\ No newline at end of file
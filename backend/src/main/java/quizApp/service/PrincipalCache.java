@@ -0,0 +1,68 @@
+package quizApp.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Пользователи, уже загруженные JwtAuthenticationFilter, по subject токена (email).
+ * Запись живёт ttl; смена роли и удаление пользователя сбрасывают её сразу.
+ */
+@Slf4j
+@Component
+public class PrincipalCache {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${quiz.auth.principal-cache.max-size:10000}")
+    private long maxSize;
+
+    @Value("${quiz.auth.principal-cache.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    private Cache<String, UserDetails> cache;
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "auth.principals");
+    }
+
+    // UsernameNotFoundException из loader пробрасывается и не кэшируется
+    public UserDetails get(String subject, Function<String, UserDetails> loader) {
+        return cache.get(subject, loader);
+    }
+
+    /**
+     * Сброс сейчас и после коммита: запрос, прочитавший пользователя до коммита, не вернёт старую роль в кэш.
+     */
+    public void evictAfterCommit(String subject) {
+        cache.invalidate(subject);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(subject);
+                }
+            });
+        }
+        log.debug("Evicted cached principal {}", subject);
+    }
+}
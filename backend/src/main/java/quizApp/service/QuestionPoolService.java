@@ -0,0 +1,245 @@
+package quizApp.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import quizApp.model.Question;
+import quizApp.repository.QuestionRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Пул заранее сгенерированных вопросов по корзинам (тег, сложность).
+ * Фоновый планировщик держит в каждой корзине target-depth невыданных вопросов,
+ * а генерация теста сначала забирает вопросы отсюда и идёт в AI только за недостающими.
+ */
+@Slf4j
+@Service
+public class QuestionPoolService {
+
+    @Autowired
+    private QuestionRepository questionRepository;
+
+    @Autowired
+    private AIService aiService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    @Qualifier("questionPoolRefillExecutor")
+    private TaskExecutor refillExecutor;
+
+    @Value("${quiz.pool.enabled:true}")
+    private boolean enabled;
+
+    @Value("${quiz.pool.target-depth:10}")
+    private int targetDepth;
+
+    @Value("${quiz.pool.refill-batch-size:5}")
+    private int refillBatchSize;
+
+    @Value("${quiz.pool.max-buckets:50}")
+    private int maxBuckets;
+
+    @Value("${quiz.pool.refill-budget-per-hour:60}")
+    private int refillBudgetPerHour;
+
+    @Value("${quiz.pool.buckets:}")
+    private List<String> configuredBuckets;
+
+    private final Map<PoolBucket, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final Set<PoolBucket> refilling = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger budgetUsed = new AtomicInteger();
+    private volatile long budgetWindowStart = System.currentTimeMillis();
+
+    record PoolBucket(String tag, String difficulty) {
+
+        static PoolBucket of(String tag, String difficulty) {
+            return new PoolBucket(tag.trim().toLowerCase(Locale.ROOT), difficulty.trim().toUpperCase(Locale.ROOT));
+        }
+
+        @Override
+        public String toString() {
+            return tag + "/" + difficulty;
+        }
+    }
+
+    /**
+     * Забирает из пула до count вопросов, распределяя их по тегам запроса.
+     * Возвращённые вопросы уже помечены как выданные.
+     */
+    public List<Question> take(List<String> tags, String difficulty, int count) {
+        if (!enabled || tags == null || tags.isEmpty() || difficulty == null || count <= 0) {
+            return List.of();
+        }
+
+        List<PoolBucket> requested = tags.stream()
+                .filter(tag -> tag != null && !tag.isBlank())
+                .map(tag -> PoolBucket.of(tag, difficulty))
+                .distinct()
+                .toList();
+        requested.forEach(this::register);
+        if (requested.isEmpty()) {
+            return List.of();
+        }
+
+        List<Question> taken = transactionTemplate.execute(status -> claim(requested, count));
+        recordTake(count, taken.size());
+        return taken;
+    }
+
+    private List<Question> claim(List<PoolBucket> requested, int count) {
+        List<Question> taken = new ArrayList<>();
+        int perBucket = (count + requested.size() - 1) / requested.size();
+
+        for (PoolBucket bucket : requested) {
+            int wanted = Math.min(perBucket, count - taken.size());
+            if (wanted <= 0) {
+                break;
+            }
+            taken.addAll(claimFrom(bucket, wanted));
+        }
+        // Если какая-то корзина пуста, добираем из остальных
+        for (PoolBucket bucket : requested) {
+            if (taken.size() >= count) {
+                break;
+            }
+            taken.addAll(claimFrom(bucket, count - taken.size()));
+        }
+        return taken;
+    }
+
+    private List<Question> claimFrom(PoolBucket bucket, int wanted) {
+        List<Question> questions = questionRepository.findPooledForUpdate(
+                bucket.tag(), bucket.difficulty(), PageRequest.of(0, wanted));
+        questions.forEach(question -> question.setPooled(false));
+        AtomicLong depth = buckets.get(bucket);
+        if (depth != null) {
+            depth.updateAndGet(value -> Math.max(0, value - questions.size()));
+        }
+        return questions;
+    }
+
+    private void recordTake(int requested, int served) {
+        String outcome = served == 0 ? "miss" : served >= requested ? "hit" : "partial";
+        Counter.builder("quiz.pool.requests")
+                .description("Запросы к пулу вопросов по результату")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+        Counter.builder("quiz.pool.questions.served")
+                .register(meterRegistry)
+                .increment(served);
+        log.info("Question pool served {} of {} questions ({})", served, requested, outcome);
+    }
+
+    @Scheduled(initialDelayString = "${quiz.pool.initial-delay-ms:30000}",
+            fixedDelayString = "${quiz.pool.refill-interval-ms:60000}")
+    public void refill() {
+        if (!enabled) {
+            return;
+        }
+        if (configuredBuckets != null) {
+            configuredBuckets.stream()
+                    .filter(entry -> entry.contains(":"))
+                    .map(entry -> entry.split(":", 2))
+                    .forEach(parts -> register(PoolBucket.of(parts[0], parts[1])));
+        }
+
+        for (Map.Entry<PoolBucket, AtomicLong> entry : buckets.entrySet()) {
+            PoolBucket bucket = entry.getKey();
+            long depth = questionRepository.countByPooledTrueAndPoolTagAndDifficulty(bucket.tag(), bucket.difficulty());
+            entry.getValue().set(depth);
+
+            if (depth >= targetDepth || !refilling.add(bucket)) {
+                continue;
+            }
+            if (!acquireBudget()) {
+                refilling.remove(bucket);
+                log.info("Question pool refill budget exhausted, skipping {}", bucket);
+                return;
+            }
+            try {
+                refillExecutor.execute(() -> refillBucket(bucket, (int) (targetDepth - depth)));
+            } catch (TaskRejectedException e) {
+                refilling.remove(bucket);
+                log.debug("Question pool refill queue is full, {} will be retried", bucket);
+            }
+        }
+    }
+
+    private void refillBucket(PoolBucket bucket, int missing) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        try {
+            int batch = Math.min(Math.max(1, refillBatchSize), missing);
+            List<Question> generated = aiService.requestQuizQuestions(bucket.tag(), bucket.difficulty(), batch);
+            generated.forEach(question -> {
+                question.setPooled(true);
+                question.setPoolTag(bucket.tag());
+                question.setDifficulty(bucket.difficulty());
+            });
+            transactionTemplate.execute(status -> questionRepository.saveAll(generated));
+            buckets.get(bucket).addAndGet(generated.size());
+            log.info("Question pool refilled {} with {} questions", bucket, generated.size());
+        } catch (Exception e) {
+            outcome = "failure";
+            log.warn("Question pool refill for {} failed: {}", bucket, e.getMessage());
+        } finally {
+            refilling.remove(bucket);
+            sample.stop(Timer.builder("quiz.pool.refill.duration")
+                    .description("Время пополнения корзины пула через AI")
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+
+    private void register(PoolBucket bucket) {
+        if (buckets.containsKey(bucket) || buckets.size() >= maxBuckets) {
+            return;
+        }
+        AtomicLong depth = new AtomicLong();
+        if (buckets.putIfAbsent(bucket, depth) == null) {
+            Gauge.builder("quiz.pool.depth", depth, AtomicLong::get)
+                    .description("Невыданные вопросы в корзине пула")
+                    .tag("tag", bucket.tag())
+                    .tag("difficulty", bucket.difficulty())
+                    .register(meterRegistry);
+        }
+    }
+
+    private synchronized boolean acquireBudget() {
+        long now = System.currentTimeMillis();
+        if (now - budgetWindowStart >= 3_600_000L) {
+            budgetWindowStart = now;
+            budgetUsed.set(0);
+        }
+        if (budgetUsed.get() >= refillBudgetPerHour) {
+            return false;
+        }
+        budgetUsed.incrementAndGet();
+        return true;
+    }
+}
@@ -2,47 +2,70 @@ package quizApp.service;
 
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import quizApp.model.Question;
+import quizApp.model.dto.QuestionPage;
 import quizApp.repository.QuestionRepository;
+import quizApp.repository.QuizRepository;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
 
 @Service
 @Transactional
 public class QuestionService {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     @Autowired
     private QuestionRepository questionRepository;
 
+    @Autowired
+    private QuizRepository quizRepository;
+
+    @Autowired
+    private QuizResponseCache quizResponseCache;
+
+    @Transactional(readOnly = true)
     public List<Question> getAllQuestions() {
-        return questionRepository.findAll();
+        return questionRepository.findByPooledFalse();
     }
 
+    // Вопросы пула, ещё не выданные в тест, для банка не существуют
+    @Transactional(readOnly = true)
     public Optional<Question> getQuestionById(Long id) {
-        return questionRepository.findById(id);
+        return questionRepository.findByIdAndPooledFalse(id);
     }
 
     public Question saveQuestion(Question question) {
-        return questionRepository.save(question);
+        return questionRepository.save(toBankQuestion(question));
     }
 
     public List<Question> saveAllQuestions(List<Question> questions) {
+        questions.forEach(QuestionService::toBankQuestion);
         return questionRepository.saveAll(questions);
     }
 
+    @Transactional(readOnly = true)
     public List<String> getAllTags() {
         return questionRepository.findAllDistinctTags();
     }
 
     public void deleteQuestion(Long id) {
-        questionRepository.deleteById(id);
+        questionRepository.findByIdAndPooledFalse(id).ifPresent(question -> {
+            quizResponseCache.evictAfterCommit(quizRepository.findIdsByQuestionId(id));
+            questionRepository.delete(question);
+        });
     }
 
     public Question updateQuestion(Long id, Question questionDetails) {
-        return questionRepository.findById(id)
+        return questionRepository.findByIdAndPooledFalse(id)
                 .map(question -> {
                     question.setText(questionDetails.getText());
                     question.setType(questionDetails.getType());
@@ -51,32 +74,83 @@ public class QuestionService {
                     question.setExplanation(questionDetails.getExplanation());
                     question.setTags(questionDetails.getTags());
                     question.setDifficulty(questionDetails.getDifficulty());
+                    // Готовые ответы тестов с этим вопросом устарели
+                    quizResponseCache.evictAfterCommit(quizRepository.findIdsByQuestionId(id));
                     return questionRepository.save(question);
                 })
                 .orElseThrow(() -> new RuntimeException("Question not found with id: " + id));
     }
 
+    @Transactional(readOnly = true)
     public List<Question> getQuestionsByTag(String tag) {
         return questionRepository.findByTagsContaining(tag);
     }
 
-    public List<Question> getQuestionsByDifficulty(String difficulty) {
-        return questionRepository.findAll().stream()
-                .filter(q -> q.getDifficulty().equalsIgnoreCase(difficulty))
-                .toList();
+    @Transactional(readOnly = true)
+    public QuestionPage getQuestionsByTag(String tag, int page, int size) {
+        return toPage(questionRepository.findByTag(tag, pageRequest(page, size)));
     }
 
+    @Transactional(readOnly = true)
+    public QuestionPage getQuestionsByDifficulty(String difficulty, int page, int size) {
+        return toPage(questionRepository.findByDifficultyAndPooledFalse(Question.normalizeDifficulty(difficulty),
+                pageRequest(page, size)));
+    }
+
+    @Transactional(readOnly = true)
     public long getTotalQuestions() {
-        return questionRepository.count();
+        return questionRepository.countByPooledFalse();
     }
 
+    @Transactional(readOnly = true)
     public long getQuestionsCountByTag(String tag) {
-        return questionRepository.findByTagsContaining(tag).size();
+        return questionRepository.countByTag(tag);
     }
 
+    @Transactional(readOnly = true)
     public long getQuestionsCountByDifficulty(String difficulty) {
-        return questionRepository.findAll().stream()
-                .filter(q -> q.getDifficulty().equalsIgnoreCase(difficulty))
-                .count();
+        return questionRepository.countByDifficultyAndPooledFalse(Question.normalizeDifficulty(difficulty));
+    }
+
+    @Transactional(readOnly = true)
+    public long getQuestionsCount(String tag, String difficulty) {
+        return questionRepository.countByTagAndDifficulty(tag, Question.normalizeDifficulty(difficulty));
+    }
+
+    /**
+     * Число вопросов по каждой паре тег - сложность; группирует база (QuestionTagCounts).
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Map<String, Long>> getTagDifficultyMatrix() {
+        Map<String, Map<String, Long>> matrix = new TreeMap<>();
+        for (Object[] row : questionRepository.countPerTagAndDifficulty()) {
+            String tag = (String) row[0];
+            String difficulty = row[1] == null ? "UNKNOWN" : Question.normalizeDifficulty((String) row[1]);
+            long count = ((Number) row[2]).longValue();
+            matrix.computeIfAbsent(tag, t -> new TreeMap<>()).merge(difficulty, count, Long::sum);
+        }
+        return matrix;
+    }
+
+    // Через API банка нельзя положить вопрос в пул: его запас пополняет только QuestionPoolService
+    private static Question toBankQuestion(Question question) {
+        question.setPooled(false);
+        question.setPoolTag(null);
+        return question;
+    }
+
+    private static PageRequest pageRequest(int page, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        if (page < 0) {
+            throw new IllegalArgumentException("Page must not be negative");
+        }
+        return PageRequest.of(page, size, Sort.by("id"));
+    }
+
+    private static QuestionPage toPage(Page<Question> page) {
+        return new QuestionPage(page.getContent(), page.getNumber(), page.getSize(), page.getTotalElements(),
+                page.hasNext());
     }
-}
\ No newline at end of file
+}
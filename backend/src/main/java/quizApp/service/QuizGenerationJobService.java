@@ -0,0 +1,134 @@
+package quizApp.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Service;
+import quizApp.exception.ResourceNotFoundException;
+import quizApp.exception.ServiceUnavailableException;
+import quizApp.model.GenerationJobStatus;
+import quizApp.model.Quiz;
+import quizApp.model.dto.GenerationJobResponse;
+import quizApp.model.dto.QuizRequest;
+import quizApp.model.dto.QuizResponse;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Асинхронная генерация тестов: задача ставится в ограниченный пул,
+ * клиент сразу получает id и опрашивает статус. Задача видна только
+ * отправившему её пользователю.
+ */
+@Slf4j
+@Service
+public class QuizGenerationJobService {
+
+    @Autowired
+    private QuizService quizService;
+
+    @Autowired
+    @Qualifier("quizGenerationExecutor")
+    private TaskExecutor quizGenerationExecutor;
+
+    @Value("${quiz.generation.job-retention-minutes:30}")
+    private long jobRetentionMinutes;
+
+    @Value("${quiz.generation.retry-after-seconds:10}")
+    private long retryAfterSeconds;
+
+    private final Map<String, GenerationJob> jobs = new ConcurrentHashMap<>();
+
+    public GenerationJobResponse submit(QuizRequest request, String owner) {
+        quizService.validateRequest(request);
+        purgeFinishedJobs();
+
+        GenerationJob job = new GenerationJob(UUID.randomUUID().toString(), owner);
+        jobs.put(job.id, job);
+
+        try {
+            quizGenerationExecutor.execute(() -> run(job, request));
+        } catch (TaskRejectedException e) {
+            jobs.remove(job.id);
+            log.warn("Quiz generation queue is full, rejecting job {}", job.id);
+            throw new ServiceUnavailableException("Too many quiz generations in progress, try again later",
+                    retryAfterSeconds);
+        }
+
+        log.info("Submitted quiz generation job {}", job.id);
+        return job.toResponse();
+    }
+
+    public GenerationJobResponse getJob(String jobId, String owner) {
+        return findJob(jobId, owner).toResponse();
+    }
+
+    /**
+     * Future завершается, когда задача перейдёт в COMPLETED или FAILED.
+     */
+    public CompletableFuture<GenerationJobResponse> awaitJob(String jobId, String owner) {
+        GenerationJob job = findJob(jobId, owner);
+        return job.completion.thenApply(ignored -> job.toResponse());
+    }
+
+    // Чужая задача неотличима от несуществующей, чтобы не раскрывать чужие id
+    private GenerationJob findJob(String jobId, String owner) {
+        GenerationJob job = jobs.get(jobId);
+        if (job == null || !job.owner.equals(owner)) {
+            throw new ResourceNotFoundException("Generation job not found: " + jobId);
+        }
+        return job;
+    }
+
+    private void run(GenerationJob job, QuizRequest request) {
+        job.status = GenerationJobStatus.RUNNING;
+        try {
+            Quiz quiz = quizService.generateQuiz(request);
+            job.quiz = quizService.convertToDTO(quiz);
+            job.finish(GenerationJobStatus.COMPLETED);
+            log.info("Quiz generation job {} completed, quiz id {}", job.id, quiz.getId());
+        } catch (Exception e) {
+            job.error = e.getMessage();
+            job.finish(GenerationJobStatus.FAILED);
+            log.warn("Quiz generation job {} failed: {}", job.id, e.getMessage());
+        }
+    }
+
+    private void purgeFinishedJobs() {
+        LocalDateTime threshold = LocalDateTime.now().minus(Duration.ofMinutes(jobRetentionMinutes));
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(threshold));
+    }
+
+    private static class GenerationJob {
+        private final String id;
+        private final String owner;
+        private final LocalDateTime submittedAt = LocalDateTime.now();
+        private final CompletableFuture<Void> completion = new CompletableFuture<>();
+        private volatile GenerationJobStatus status = GenerationJobStatus.PENDING;
+        private volatile QuizResponse quiz;
+        private volatile String error;
+        private volatile LocalDateTime finishedAt;
+
+        private GenerationJob(String id, String owner) {
+            this.id = id;
+            this.owner = owner;
+        }
+
+        private void finish(GenerationJobStatus finalStatus) {
+            finishedAt = LocalDateTime.now();
+            status = finalStatus;
+            completion.complete(null);
+        }
+
+        private GenerationJobResponse toResponse() {
+            return new GenerationJobResponse(id, status, quiz, error, submittedAt, finishedAt);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package quizApp.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import quizApp.model.dto.QuizResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Готовые байты QuizResponse по id теста: сериализация и gzip выполняются один раз,
+ * дальше ответ пишется как есть. ETag - хэш содержимого, так что новая версия теста
+ * всегда получает новый ETag; записи сбрасываются при удалении теста и изменении его вопросов.
+ */
+@Slf4j
+@Component
+public class QuizResponseCache {
+
+    public record CachedQuiz(byte[] json, byte[] gzip, String etag) {
+
+        public boolean hasGzip() {
+            return gzip != null;
+        }
+
+        /**
+         * Сравнение для If-None-Match: слабое, как требует RFC 9110, и без учёта кодирования.
+         */
+        public boolean matches(String ifNoneMatch) {
+            if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+                return false;
+            }
+            for (String candidate : ifNoneMatch.split(",")) {
+                String tag = candidate.trim();
+                if (tag.equals("*")) {
+                    return true;
+                }
+                if (tag.startsWith("W/")) {
+                    tag = tag.substring(2);
+                }
+                if (tag.equals(etag) || tag.equals(gzipEtag())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        // У сжатого представления свой сильный ETag
+        public String gzipEtag() {
+            return etag.substring(0, etag.length() - 1) + "-gz\"";
+        }
+    }
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${quiz.response-cache.max-bytes:33554432}")
+    private long maxBytes;
+
+    @Value("${quiz.response-cache.ttl-minutes:60}")
+    private long ttlMinutes;
+
+    @Value("${quiz.response-cache.gzip-min-bytes:1024}")
+    private int gzipMinBytes;
+
+    private Cache<Long, CachedQuiz> cache;
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((Long id, CachedQuiz entry) -> entry.json().length + (entry.hasGzip() ? entry.gzip().length : 0))
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "quiz.responses");
+    }
+
+    public CachedQuiz get(Long quizId, Supplier<QuizResponse> loader) {
+        return cache.get(quizId, id -> serialize(loader.get()));
+    }
+
+    /**
+     * Сброс после коммита: иначе параллельное чтение успело бы закэшировать старое состояние.
+     */
+    public void evictAfterCommit(Collection<Long> quizIds) {
+        if (quizIds.isEmpty()) {
+            return;
+        }
+        List<Long> ids = List.copyOf(quizIds);
+        cache.invalidateAll(ids);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidateAll(ids);
+                }
+            });
+        }
+        log.debug("Evicted serialized quizzes {}", ids);
+    }
+
+    public void evictAfterCommit(Long quizId) {
+        evictAfterCommit(List.of(quizId));
+    }
+
+    private CachedQuiz serialize(QuizResponse response) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(response);
+            byte[] gzip = json.length >= gzipMinBytes ? gzip(json) : null;
+            return new CachedQuiz(json, gzip, etag(json));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize quiz " + response.getId(), e);
+        }
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static String etag(byte[] json) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(digest).substring(0, 27) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
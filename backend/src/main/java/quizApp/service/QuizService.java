@@ -2,20 +2,26 @@ package quizApp.service;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import quizApp.model.Question;
 import quizApp.model.QuestionType;
 import quizApp.model.Quiz;
 import quizApp.model.QuizResult;
 import quizApp.model.dto.QuestionDTO;
+import quizApp.model.dto.QuizCataloguePage;
 import quizApp.model.dto.QuizRequest;
 import quizApp.model.dto.QuizResponse;
+import quizApp.model.dto.QuizSummary;
 import quizApp.repository.QuestionRepository;
 import quizApp.repository.QuizRepository;
 import quizApp.repository.QuizResultRepository;
 
 import java.util.*;
+import java.util.function.Consumer;
 @Slf4j
 @Service
 public class QuizService {
@@ -32,6 +38,20 @@ public class QuizService {
     @Autowired
     private AIService aiService;
 
+    @Autowired
+    private QuestionPoolService questionPoolService;
+
+    @Autowired
+    private QuizResponseCache quizResponseCache;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${quiz.generation.stream-batch-size:5}")
+    private int streamBatchSize;
+
+    private static final int MAX_CATALOGUE_PAGE_SIZE = 100;
+
 
     @Transactional
     public String deleteQuizById(Long id) {
@@ -39,24 +59,42 @@ public class QuizService {
         Quiz quiz = quizRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Quiz not found " + id));
         quizRepository.deleteById(id);
+        quizResponseCache.evictAfterCommit(id);
         return "Quiz deleted";
     }
 
+    /**
+     * Каталог тестов без вопросов. С cursor - keyset-пагинация (тесты с id меньше cursor),
+     * без него - обычная страница page.
+     */
     @Transactional(readOnly = true)
-    public List<QuizResponse> getQuizzes() {
-        List<Quiz> quizzes = quizRepository.findAll();
+    public QuizCataloguePage getCatalogue(Long cursor, int page, int size) {
+        if (size < 1 || size > MAX_CATALOGUE_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_CATALOGUE_PAGE_SIZE);
+        }
+        if (page < 0) {
+            throw new IllegalArgumentException("Page must not be negative");
+        }
 
+        if (cursor == null) {
+            // Для offset-страниц count-запрос не делаем: полная страница означает, что может быть следующая
+            List<QuizSummary> items = quizRepository.findSummaries(PageRequest.of(page, size));
+            boolean hasNext = items.size() == size;
+            return new QuizCataloguePage(items, hasNext ? items.get(size - 1).getId() : null, hasNext);
+        }
 
-        for (Quiz quiz : quizzes) {
-            // Инициализируем вопросы
-            if (quiz.getQuestions() != null) {
-                quiz.getQuestions().size(); // Это загрузит коллекцию
-            }
-            // Инициализируем теги
-            if (quiz.getTags() != null) {
-                quiz.getTags().size(); // Это загрузит коллекцию
-            }
+        // Берём на одну запись больше, чтобы без count-запроса понять, есть ли следующая страница
+        List<QuizSummary> items = quizRepository.findSummariesBefore(cursor, PageRequest.of(0, size + 1));
+        boolean hasNext = items.size() > size;
+        if (hasNext) {
+            items = new ArrayList<>(items.subList(0, size));
         }
+        return new QuizCataloguePage(items, hasNext ? items.get(size - 1).getId() : null, hasNext);
+    }
+
+    @Transactional(readOnly = true)
+    public List<QuizResponse> getQuizzes() {
+        List<Quiz> quizzes = quizRepository.findAllWithQuestions();
 
         log.info("quiz service findAll: {}", quizzes);
         List<QuizResponse> result = new ArrayList<>();
@@ -67,7 +105,7 @@ public class QuizService {
         return result;
     }
 
-    @Transactional
+    // Без @Transactional: вызов AI длится десятки секунд и не должен держать соединение с БД
     public Quiz generateQuiz(QuizRequest request) {
         log.info("Received generate request: {}", request);
         log.info("Tags: {}", request.getTags());
@@ -75,37 +113,32 @@ public class QuizService {
         log.info("QuestionCount: {}", request.getQuestionCount());
 
         try {
-            // Проверка на null и пустой список
-            if (request.getTags() == null || request.getTags().isEmpty()) {
-                log.warn("Empty tags list provided in request");
-                throw new IllegalArgumentException("Tags list cannot be empty");
-            }
+            validateRequest(request);
             String tagsString = String.join(", ", request.getTags());
 
             String prompt = request.getTags() + " - создай " + request.getQuestionCount() + " вопросов";
             log.debug("Generating quiz with prompt: {}", prompt);
 
-            List<Question> questions = aiService.generateQuizQuestions(tagsString, request.getDifficulty(), request.getQuestionCount());
-            questions = questionRepository.saveAll(questions);
+            // Сначала берём готовые вопросы из пула, в AI идём только за недостающими
+            List<Question> pooled = questionPoolService.take(request.getTags(), request.getDifficulty(), request.getQuestionCount());
+            int missing = request.getQuestionCount() - pooled.size();
+
+            List<Question> questions = new ArrayList<>();
+            if (missing > 0) {
+                questions = aiService.generateQuizQuestions(tagsString, request.getDifficulty(), missing);
 
-            if (questions.isEmpty()) {
-                log.warn("AI service returned empty questions list, creating sample questions");
-                // Если вопросов нет, создаем заглушки и СОХРАНЯЕМ их
-                questions = createSampleQuestions(request.getQuestionCount());
-                questions = questionRepository.saveAll(questions); // Сохраняем вопросы перед созданием теста
+                if (questions.isEmpty() && pooled.isEmpty()) {
+                    log.warn("AI service returned empty questions list, creating sample questions");
+                    questions = createSampleQuestions(request.getQuestionCount());
+                } else {
+                    log.info("Successfully generated {} questions", questions.size());
+                }
             } else {
-                log.info("Successfully generated {} questions", questions.size());
+                log.info("Quiz assembled from question pool");
             }
 
-            Quiz quiz = new Quiz();
-            quiz.setTitle("Тест: " + String.join(", ", request.getTags()));
-            quiz.setDescription("Автоматически сгенерированный тест");
-            quiz.setQuestions(questions);
-            quiz.setTags(new HashSet<>(request.getTags()));
-            quiz.setDifficulty(request.getDifficulty());
-            quiz.setTimeLimit(30);
-
-            Quiz savedQuiz = quizRepository.save(quiz);
+            List<Question> generated = questions;
+            Quiz savedQuiz = transactionTemplate.execute(status -> saveGeneratedQuiz(request, pooled, generated));
             log.info("Successfully created quiz with ID: {}", savedQuiz.getId());
 
             return savedQuiz;
@@ -116,9 +149,84 @@ public class QuizService {
         }
     }
 
+    /**
+     * Потоковая генерация: каждый готовый вопрос сразу отдаётся в onQuestion,
+     * а в БД вопросы пишутся небольшими пачками по мере готовности.
+     */
+    public Quiz generateQuizStreaming(QuizRequest request, Consumer<QuestionDTO> onQuestion) {
+        validateRequest(request);
+        String tagsString = String.join(", ", request.getTags());
+
+        // Вопросы из пула уже сохранены — отдаём их сразу
+        List<Question> saved = new ArrayList<>(
+                questionPoolService.take(request.getTags(), request.getDifficulty(), request.getQuestionCount()));
+        saved.forEach(question -> onQuestion.accept(convertQuestionToDTO(question)));
+        int missing = request.getQuestionCount() - saved.size();
+
+        List<Question> batch = new ArrayList<>();
+        if (missing > 0) {
+            aiService.streamQuizQuestions(tagsString, request.getDifficulty(), missing, question -> {
+                onQuestion.accept(convertQuestionToDTO(question));
+                batch.add(question);
+                if (batch.size() >= Math.max(1, streamBatchSize)) {
+                    saved.addAll(saveQuestionBatch(batch));
+                    batch.clear();
+                }
+            });
+        }
+        if (!batch.isEmpty()) {
+            saved.addAll(saveQuestionBatch(batch));
+        }
+        log.info("Streamed and saved {} questions", saved.size());
+
+        Quiz savedQuiz = transactionTemplate.execute(status -> quizRepository.save(buildQuiz(request, saved)));
+        log.info("Successfully created streamed quiz with ID: {}", savedQuiz.getId());
+        return savedQuiz;
+    }
+
+    private List<Question> saveQuestionBatch(List<Question> batch) {
+        List<Question> toSave = new ArrayList<>(batch);
+        return transactionTemplate.execute(status -> questionRepository.saveAll(toSave));
+    }
+
+    public void validateRequest(QuizRequest request) {
+        // Проверка на null и пустой список
+        if (request.getTags() == null || request.getTags().isEmpty()) {
+            log.warn("Empty tags list provided in request");
+            throw new IllegalArgumentException("Tags list cannot be empty");
+        }
+        for (String tag : request.getTags()) {
+            if (tag == null || tag.isBlank() || tag.trim().length() > Question.MAX_TAG_LENGTH) {
+                log.warn("Invalid tag provided in request: {}", tag);
+                throw new IllegalArgumentException(
+                        "Each tag must be non-blank and at most " + Question.MAX_TAG_LENGTH + " characters");
+            }
+        }
+    }
+
+    private Quiz saveGeneratedQuiz(QuizRequest request, List<Question> pooled, List<Question> questions) {
+        List<Question> savedQuestions = new ArrayList<>(pooled);
+        if (!questions.isEmpty()) {
+            savedQuestions.addAll(questionRepository.saveAll(questions));
+        }
+        return quizRepository.save(buildQuiz(request, savedQuestions));
+    }
+
+    private Quiz buildQuiz(QuizRequest request, List<Question> savedQuestions) {
+        Quiz quiz = new Quiz();
+        quiz.setTitle("Тест: " + String.join(", ", request.getTags()));
+        quiz.setDescription("Автоматически сгенерированный тест");
+        quiz.setQuestions(savedQuestions);
+        quiz.setTags(new HashSet<>(request.getTags()));
+        quiz.setDifficulty(request.getDifficulty());
+        quiz.setTimeLimit(30);
+        return quiz;
+    }
+
 
     @Transactional(readOnly = true)
     public QuizResponse getQuizById(Long id) {
+        // find по id идёт через кэш второго уровня: тест, его вопросы и их коллекции обычно уже там
         Quiz quiz = quizRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Quiz not found"));
 
@@ -210,7 +318,8 @@ public class QuizService {
         response.setId(quiz.getId());
         response.setTitle(quiz.getTitle());
         response.setDescription(quiz.getDescription());
-        response.setTags(quiz.getTags());
+        // Копии коллекций: ленивые коллекции нельзя отдавать в JSON за пределами транзакции
+        response.setTags(quiz.getTags() == null ? null : new HashSet<>(quiz.getTags()));
         response.setDifficulty(quiz.getDifficulty());
         response.setTimeLimit(quiz.getTimeLimit());
 
@@ -224,19 +333,22 @@ public class QuizService {
     private List<QuestionDTO> convertQuestionsToDTO(List<Question> questions) {
         List<QuestionDTO> questionDTOList = new ArrayList<>();
         for (Question q : questions) {
-            QuestionDTO questionDTO = new QuestionDTO();
-            questionDTO.setId(q.getId());
-            questionDTO.setTags(q.getTags());
-            questionDTO.setDifficulty(q.getDifficulty());
-            questionDTO.setCorrectAnswer(q.getCorrectAnswer());
-            questionDTO.setOptions(q.getOptions());
-            questionDTO.setExplanation(q.getExplanation());
-            questionDTO.setText(q.getText());
-
-            questionDTOList.add(questionDTO);
+            questionDTOList.add(convertQuestionToDTO(q));
         }
         return questionDTOList;
     }
 
+    private QuestionDTO convertQuestionToDTO(Question q) {
+        QuestionDTO questionDTO = new QuestionDTO();
+        questionDTO.setId(q.getId());
+        questionDTO.setTags(q.getTags() == null ? null : new HashSet<>(q.getTags()));
+        questionDTO.setDifficulty(q.getDifficulty());
+        questionDTO.setCorrectAnswer(q.getCorrectAnswer());
+        questionDTO.setOptions(q.getOptions() == null ? null : new ArrayList<>(q.getOptions()));
+        questionDTO.setExplanation(q.getExplanation());
+        questionDTO.setText(q.getText());
+        return questionDTO;
+    }
+
 
 }
\ No newline at end of file
@@ -0,0 +1,80 @@
+package quizApp.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import quizApp.exception.ServiceUnavailableException;
+import quizApp.model.Quiz;
+import quizApp.model.dto.QuizRequest;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Отдаёт сгенерированные вопросы браузеру через SSE по мере их появления.
+ * События: "question" (QuestionDTO), "quiz" (итоговый QuizResponse), "error".
+ */
+@Slf4j
+@Service
+public class QuizStreamingService {
+
+    @Autowired
+    private QuizService quizService;
+
+    @Autowired
+    @Qualifier("quizGenerationExecutor")
+    private TaskExecutor quizGenerationExecutor;
+
+    @Value("${quiz.generation.stream-timeout-ms:300000}")
+    private long streamTimeoutMs;
+
+    @Value("${quiz.generation.retry-after-seconds:10}")
+    private long retryAfterSeconds;
+
+    public SseEmitter stream(QuizRequest request) {
+        quizService.validateRequest(request);
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+
+        try {
+            quizGenerationExecutor.execute(() -> run(emitter, request));
+        } catch (TaskRejectedException e) {
+            log.warn("Quiz generation queue is full, rejecting stream request");
+            throw new ServiceUnavailableException("Too many quiz generations in progress, try again later",
+                    retryAfterSeconds);
+        }
+        return emitter;
+    }
+
+    private void run(SseEmitter emitter, QuizRequest request) {
+        // Если клиент ушёл, генерацию всё равно доводим до конца: вопросы уже оплачены
+        AtomicBoolean clientGone = new AtomicBoolean(false);
+        try {
+            Quiz quiz = quizService.generateQuizStreaming(request,
+                    question -> send(emitter, "question", question, clientGone));
+            send(emitter, "quiz", quizService.convertToDTO(quiz), clientGone);
+            emitter.complete();
+        } catch (Exception e) {
+            log.warn("Streaming quiz generation failed: {}", e.getMessage());
+            send(emitter, "error", Map.of("error", String.valueOf(e.getMessage())), clientGone);
+            emitter.complete();
+        }
+    }
+
+    private void send(SseEmitter emitter, String event, Object data, AtomicBoolean clientGone) {
+        if (clientGone.get()) {
+            return;
+        }
+        try {
+            emitter.send(SseEmitter.event().name(event).data(data));
+        } catch (IOException | IllegalStateException e) {
+            log.debug("SSE client disconnected: {}", e.getMessage());
+            clientGone.set(true);
+        }
+    }
+}
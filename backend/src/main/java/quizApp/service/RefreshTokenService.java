@@ -0,0 +1,117 @@
+package quizApp.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import quizApp.exception.InvalidRefreshTokenException;
+import quizApp.model.RefreshToken;
+import quizApp.model.User;
+import quizApp.repository.RefreshTokenRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Refresh-токены с ротацией: каждый токен обменивается на новый ровно один раз.
+ * Повторный обмен уже использованного токена означает, что его кто-то скопировал:
+ * вся цепочка этого входа отзывается, и пользователю придётся войти заново.
+ */
+@Slf4j
+@Service
+public class RefreshTokenService {
+
+    public record Rotation(User user, String refreshToken) {
+    }
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Value("${quiz.auth.refresh-token.ttl-days:14}")
+    private long ttlDays;
+
+    @Transactional
+    public String issue(User user) {
+        return create(user, UUID.randomUUID().toString());
+    }
+
+    // Отзыв цепочки при повторном обмене должен сохраниться, хотя запрос и завершается ошибкой
+    @Transactional(noRollbackFor = InvalidRefreshTokenException.class)
+    public Rotation rotate(String rawToken) {
+        if (rawToken == null || rawToken.isBlank()) {
+            throw new InvalidRefreshTokenException("Refresh token is missing");
+        }
+        RefreshToken token = refreshTokenRepository.findByTokenHashForUpdate(hash(rawToken))
+                .orElseThrow(() -> new InvalidRefreshTokenException("Unknown refresh token"));
+        if (token.isRevoked()) {
+            throw new InvalidRefreshTokenException("Refresh token is revoked");
+        }
+        if (token.getUsedAt() != null) {
+            log.warn("Refresh token reuse for user {}, revoking token family {}",
+                    token.getUser().getId(), token.getFamilyId());
+            refreshTokenRepository.revokeFamily(token.getFamilyId());
+            throw new InvalidRefreshTokenException("Refresh token was already used");
+        }
+        if (token.getExpiresAt().isBefore(LocalDateTime.now())) {
+            throw new InvalidRefreshTokenException("Refresh token is expired");
+        }
+        token.setUsedAt(LocalDateTime.now());
+        return new Rotation(token.getUser(), create(token.getUser(), token.getFamilyId()));
+    }
+
+    @Transactional
+    public void revoke(String rawToken) {
+        if (rawToken == null || rawToken.isBlank()) {
+            return;
+        }
+        refreshTokenRepository.findByTokenHashForUpdate(hash(rawToken))
+                .ifPresent(token -> refreshTokenRepository.revokeFamily(token.getFamilyId()));
+    }
+
+    @Transactional
+    public void deleteAllForUser(Long userId) {
+        refreshTokenRepository.deleteByUserId(userId);
+    }
+
+    @Scheduled(fixedDelayString = "${quiz.auth.refresh-token.cleanup-interval-ms:3600000}")
+    @Transactional
+    public void purgeExpired() {
+        int deleted = refreshTokenRepository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            log.info("Deleted {} expired refresh tokens", deleted);
+        }
+    }
+
+    private String create(User user, String familyId) {
+        byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        RefreshToken token = new RefreshToken();
+        token.setUser(user);
+        token.setTokenHash(hash(rawToken));
+        token.setFamilyId(familyId);
+        token.setExpiresAt(LocalDateTime.now().plusDays(ttlDays));
+        refreshTokenRepository.save(token);
+        return rawToken;
+    }
+
+    private static String hash(String rawToken) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(rawToken.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
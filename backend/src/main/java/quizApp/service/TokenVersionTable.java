@@ -0,0 +1,109 @@
+package quizApp.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import quizApp.repository.UserRepository;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Текущие версии токенов всех пользователей в памяти: отсортированные id и версии в двух массивах.
+ * Токен с claims (uid, role, ver) принимается без обращения к базе, если его версия совпадает с текущей.
+ * Таблица перечитывается раз в refresh-ms: смена роли или удаление на другом экземпляре видны
+ * с этой задержкой, на этом экземпляре - сразу после коммита.
+ */
+@Slf4j
+@Component
+public class TokenVersionTable {
+
+    public enum Status { CURRENT, STALE, UNKNOWN }
+
+    // Версия удалённого пользователя: ни один токен её не несёт
+    static final int REVOKED = Integer.MAX_VALUE;
+
+    private record Snapshot(long[] ids, int[] versions) {
+
+        int versionOf(long userId) {
+            int index = Arrays.binarySearch(ids, userId);
+            return index >= 0 ? versions[index] : -1;
+        }
+    }
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private volatile Snapshot snapshot = new Snapshot(new long[0], new int[0]);
+
+    // Изменения этого экземпляра, которые ещё не попали в снимок
+    private final Map<Long, Integer> overrides = new ConcurrentHashMap<>();
+
+    /**
+     * UNKNOWN - пользователя нет в снимке (зарегистрировался после него или таблица ещё не загружена):
+     * такой токен проверяется по базе.
+     */
+    public Status check(long userId, int tokenVersion) {
+        Integer override = overrides.get(userId);
+        int current = override != null ? override : snapshot.versionOf(userId);
+        if (current < 0) {
+            return Status.UNKNOWN;
+        }
+        return current == tokenVersion ? Status.CURRENT : Status.STALE;
+    }
+
+    public void markChangedAfterCommit(long userId, int tokenVersion) {
+        afterCommit(() -> overrides.merge(userId, tokenVersion, Math::max));
+    }
+
+    public void markDeletedAfterCommit(long userId) {
+        afterCommit(() -> overrides.put(userId, REVOKED));
+    }
+
+    public int size() {
+        return snapshot.ids().length;
+    }
+
+    @Scheduled(fixedDelayString = "${quiz.auth.token-versions.refresh-ms:30000}")
+    public void reload() {
+        List<Object[]> rows;
+        try {
+            rows = userRepository.findTokenVersions();
+        } catch (RuntimeException e) {
+            log.warn("Token version reload failed, keeping previous table: {}", e.getMessage());
+            return;
+        }
+        long[] ids = new long[rows.size()];
+        int[] versions = new int[rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            ids[i] = ((Number) rows.get(i)[0]).longValue();
+            versions[i] = ((Number) rows.get(i)[1]).intValue();
+        }
+        Snapshot loaded = new Snapshot(ids, versions);
+        snapshot = loaded;
+        // Версии только растут: поправка не нужна, когда снимок её догнал (или удалённого пользователя в нём уже нет)
+        overrides.entrySet().removeIf(entry -> entry.getValue() == REVOKED
+                ? loaded.versionOf(entry.getKey()) < 0
+                : loaded.versionOf(entry.getKey()) >= entry.getValue());
+        log.debug("Loaded token versions of {} users", ids.length);
+    }
+
+    // Откатившаяся транзакция ничего не меняла
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,326 @@
+package quizApp.utils;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.UnknownHttpStatusCodeException;
+
+import javax.net.ssl.KeyManager;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLContextSpi;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLParameters;
+import javax.net.ssl.SSLServerSocketFactory;
+import javax.net.ssl.SSLSessionContext;
+import javax.net.ssl.SSLSocketFactory;
+import javax.net.ssl.TrustManager;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * HTTP-клиент для OpenRouter поверх java.net.http.HttpClient: один общий экземпляр
+ * держит пул keep-alive соединений и договаривается об HTTP/2 через ALPN.
+ * Дедлайны: connect - установка соединения, read - до заголовков ответа,
+ * total - весь обмен вместе с чтением тела.
+ */
+@Slf4j
+public class AIHttpClient implements AutoCloseable {
+
+    // Заголовки, которые java.net.http выставляет сам и не даёт передавать
+    private static final Set<String> RESTRICTED_HEADERS = Set.of("connection", "content-length", "host", "expect", "upgrade");
+
+    private final HttpClient client;
+    private final Duration readTimeout;
+    private final Duration totalTimeout;
+    private final MeterRegistry meterRegistry;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService deadlineScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "ai-http-deadline");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong connectionsOpened = new AtomicLong();
+    private final Counter connectionsOpenedCounter;
+
+    public record ConnectionStats(long requests, long connectionsOpened, double reuseRatio) {
+    }
+
+    @FunctionalInterface
+    public interface StreamCallback<T> {
+        T doWithBody(InputStream body) throws IOException;
+    }
+
+    public AIHttpClient(Duration connectTimeout, Duration readTimeout, Duration totalTimeout, MeterRegistry meterRegistry) {
+        this.readTimeout = readTimeout;
+        this.totalTimeout = totalTimeout;
+        this.meterRegistry = meterRegistry;
+        this.connectionsOpenedCounter = Counter.builder("ai.http.connections.opened")
+                .description("Новые TLS-соединения к AI API (каждое - полный handshake)")
+                .register(meterRegistry);
+        Gauge.builder("ai.http.connection.reuse.ratio", this, aiHttpClient -> aiHttpClient.getStats().reuseRatio())
+                .description("Доля запросов к AI API, ушедших по уже открытому соединению")
+                .register(meterRegistry);
+
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(connectTimeout)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .sslContext(countingSslContext())
+                .executor(executor)
+                .build();
+    }
+
+    /**
+     * POST с JSON-телом, возвращает тело ответа целиком. Ответ в gzip распаковывается.
+     */
+    public String post(String url, HttpHeaders headers, String body) throws IOException, InterruptedException {
+        HttpRequest request = buildRequest(url, headers, body, true);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        CompletableFuture<HttpResponse<byte[]>> future =
+                client.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray());
+
+        HttpResponse<byte[]> response = null;
+        try {
+            response = await(future, request);
+            checkStatus(response.statusCode(), response.headers(), response.body());
+            try (InputStream decoded = decode(response, new ByteArrayInputStream(response.body()))) {
+                return new String(decoded.readAllBytes(), StandardCharsets.UTF_8);
+            }
+        } finally {
+            record(sample, response);
+        }
+    }
+
+    /**
+     * POST с потоковым ответом (SSE): тело отдаётся в callback по мере поступления.
+     * По истечении total-дедлайна поток закрывается и вызов падает с HttpTimeoutException.
+     */
+    public <T> T postForStream(String url, HttpHeaders headers, String body, StreamCallback<T> callback)
+            throws IOException, InterruptedException {
+        // gzip для SSE не просим: сжатие на стороне сервера буферизует события
+        HttpRequest request = buildRequest(url, headers, body, false);
+        long startedAt = System.nanoTime();
+        Timer.Sample sample = Timer.start(meterRegistry);
+
+        HttpResponse<InputStream> response = null;
+        try {
+            response = await(client.sendAsync(request, HttpResponse.BodyHandlers.ofInputStream()), request);
+            try (InputStream in = response.body()) {
+                if (response.statusCode() >= 300) {
+                    checkStatus(response.statusCode(), response.headers(), in.readNBytes(4096));
+                }
+
+                AtomicBoolean timedOut = new AtomicBoolean(false);
+                long remaining = totalTimeout.toNanos() - (System.nanoTime() - startedAt);
+                ScheduledFuture<?> guard = deadlineScheduler.schedule(() -> {
+                    timedOut.set(true);
+                    closeQuietly(in);
+                }, Math.max(0, remaining), TimeUnit.NANOSECONDS);
+                try {
+                    T result = callback.doWithBody(decode(response, in));
+                    if (timedOut.get()) {
+                        throw deadlineExceeded();
+                    }
+                    return result;
+                } catch (IOException e) {
+                    throw timedOut.get() ? deadlineExceeded() : e;
+                } finally {
+                    guard.cancel(false);
+                }
+            }
+        } finally {
+            record(sample, response);
+        }
+    }
+
+    public ConnectionStats getStats() {
+        long total = requests.get();
+        long opened = connectionsOpened.get();
+        double reuseRatio = total == 0 ? 0.0 : Math.max(0.0, 1.0 - (double) opened / total);
+        return new ConnectionStats(total, opened, reuseRatio);
+    }
+
+    @Override
+    public void close() {
+        deadlineScheduler.shutdownNow();
+        client.close();
+        executor.shutdownNow();
+    }
+
+    private HttpRequest buildRequest(String url, HttpHeaders headers, String body, boolean acceptGzip) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url))
+                .timeout(readTimeout)
+                .POST(HttpRequest.BodyPublishers.ofString(body, StandardCharsets.UTF_8));
+        headers.forEach((name, values) -> {
+            if (!RESTRICTED_HEADERS.contains(name.toLowerCase())) {
+                values.forEach(value -> builder.header(name, value));
+            }
+        });
+        if (acceptGzip) {
+            builder.setHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        }
+        return builder.build();
+    }
+
+    private <T> T await(CompletableFuture<T> future, HttpRequest request) throws IOException, InterruptedException {
+        try {
+            return future.get(totalTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw deadlineExceeded();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            throw e;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                // ConnectException и т.п. приходят без сообщения - добавляем адрес, чтобы в логах было понятно
+                throw io.getMessage() != null ? io
+                        : new IOException(io.getClass().getSimpleName() + " calling " + request.uri(), io);
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    private InputStream decode(HttpResponse<?> response, InputStream body) throws IOException {
+        boolean gzip = response.headers().firstValue(HttpHeaders.CONTENT_ENCODING)
+                .map(encoding -> encoding.equalsIgnoreCase("gzip"))
+                .orElse(false);
+        return gzip ? new GZIPInputStream(body) : body;
+    }
+
+    private void checkStatus(int status, java.net.http.HttpHeaders responseHeaders, byte[] body) {
+        if (status < 300) {
+            return;
+        }
+        HttpStatusCode statusCode = HttpStatusCode.valueOf(status);
+        HttpHeaders headers = new HttpHeaders();
+        responseHeaders.map().forEach(headers::addAll);
+        if (statusCode.is4xxClientError()) {
+            throw HttpClientErrorException.create(statusCode, "", headers, body, StandardCharsets.UTF_8);
+        }
+        if (statusCode.is5xxServerError()) {
+            throw HttpServerErrorException.create(statusCode, "", headers, body, StandardCharsets.UTF_8);
+        }
+        throw new UnknownHttpStatusCodeException(status, "", headers, body, StandardCharsets.UTF_8);
+    }
+
+    private void record(Timer.Sample sample, HttpResponse<?> response) {
+        requests.incrementAndGet();
+        sample.stop(Timer.builder("ai.http.requests")
+                .description("Запросы к AI API по версии протокола и статусу")
+                .tag("version", response != null ? response.version().name() : "none")
+                .tag("status", response != null ? String.valueOf(response.statusCode()) : "error")
+                .register(meterRegistry));
+    }
+
+    private HttpTimeoutException deadlineExceeded() {
+        return new HttpTimeoutException("AI request exceeded total deadline of " + totalTimeout.toMillis() + " ms");
+    }
+
+    private void closeQuietly(InputStream in) {
+        try {
+            in.close();
+        } catch (IOException e) {
+            log.debug("Error closing AI response stream: {}", e.getMessage());
+        }
+    }
+
+    private void onConnectionOpened(String host, int port) {
+        connectionsOpened.incrementAndGet();
+        connectionsOpenedCounter.increment();
+        log.debug("Opened new TLS connection to {}:{}", host, port);
+    }
+
+    /**
+     * HttpClient не показывает свой пул, но на каждое новое TLS-соединение создаёт SSLEngine.
+     * Обёртка над SSLContext считает эти вызовы - так видно, сколько запросов ушло по старым соединениям.
+     */
+    private SSLContext countingSslContext() {
+        SSLContext delegate;
+        try {
+            delegate = SSLContext.getDefault();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Default SSLContext is not available", e);
+        }
+
+        SSLContextSpi spi = new SSLContextSpi() {
+            @Override
+            protected void engineInit(KeyManager[] km, TrustManager[] tm, SecureRandom sr) {
+                throw new UnsupportedOperationException("Delegating SSLContext is already initialized");
+            }
+
+            @Override
+            protected SSLSocketFactory engineGetSocketFactory() {
+                return delegate.getSocketFactory();
+            }
+
+            @Override
+            protected SSLServerSocketFactory engineGetServerSocketFactory() {
+                return delegate.getServerSocketFactory();
+            }
+
+            @Override
+            protected SSLEngine engineCreateSSLEngine() {
+                return delegate.createSSLEngine();
+            }
+
+            @Override
+            protected SSLEngine engineCreateSSLEngine(String host, int port) {
+                onConnectionOpened(host, port);
+                return delegate.createSSLEngine(host, port);
+            }
+
+            @Override
+            protected SSLSessionContext engineGetServerSessionContext() {
+                return delegate.getServerSessionContext();
+            }
+
+            @Override
+            protected SSLSessionContext engineGetClientSessionContext() {
+                return delegate.getClientSessionContext();
+            }
+
+            @Override
+            protected SSLParameters engineGetDefaultSSLParameters() {
+                return delegate.getDefaultSSLParameters();
+            }
+
+            @Override
+            protected SSLParameters engineGetSupportedSSLParameters() {
+                return delegate.getSupportedSSLParameters();
+            }
+        };
+        return new SSLContext(spi, delegate.getProvider(), delegate.getProtocol()) {
+        };
+    }
+}
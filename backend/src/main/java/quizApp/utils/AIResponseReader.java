@@ -0,0 +1,248 @@
+package quizApp.utils;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import quizApp.model.Question;
+import quizApp.model.QuestionType;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Разбор ответа модели потоковым JsonParser без промежуточных деревьев и копий строки.
+ * Конверт completion читается до choices[0].message.content, в content пропускаются
+ * рассуждения (think) и markdown-ограждения, а вопросы из массива "questions" сразу
+ * собираются в Question. Если массив оборван, возвращаются все целые вопросы до обрыва.
+ */
+public class AIResponseReader {
+
+    private static final Pattern QUESTIONS_ARRAY = Pattern.compile("\"questions\"\\s*:\\s*\\[");
+    private static final String THINK_END = "</think>";
+    private static final String FENCE = "```";
+
+    private final JsonFactory jsonFactory;
+
+    public record Completion(String content, String error) {
+    }
+
+    public AIResponseReader(JsonFactory jsonFactory) {
+        this.jsonFactory = jsonFactory;
+    }
+
+    /**
+     * Достаёт из ответа OpenRouter текст первого choice или сообщение об ошибке.
+     */
+    public Completion readCompletion(String response) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(response)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "Completion is not a JSON object");
+            }
+            String content = null;
+            String error = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                switch (field) {
+                    case "error" -> error = readErrorMessage(parser);
+                    case "choices" -> content = readFirstChoiceContent(parser);
+                    default -> parser.skipChildren();
+                }
+            }
+            return new Completion(content, error);
+        }
+    }
+
+    /**
+     * Вопросы из текста ответа модели. Берётся первый массив "questions" после рассуждений,
+     * из которого удалось прочитать хотя бы один вопрос.
+     */
+    public List<Question> readQuestions(String content) throws IOException {
+        int from = payloadStart(content);
+        Matcher matcher = QUESTIONS_ARRAY.matcher(content);
+        matcher.region(from, content.length());
+
+        while (matcher.find()) {
+            List<Question> questions = readArray(content, matcher.end() - 1);
+            if (!questions.isEmpty()) {
+                return questions;
+            }
+        }
+        return new ArrayList<>();
+    }
+
+    /**
+     * Один вопрос из готового JSON-объекта (например, вырезанного QuestionStreamExtractor).
+     */
+    public Question readQuestion(String json) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "Question is not a JSON object");
+            }
+            return bindQuestion(parser);
+        }
+    }
+
+    private List<Question> readArray(String content, int arrayStart) throws IOException {
+        List<Question> questions = new ArrayList<>();
+        Reader reader = new StringReader(content);
+        reader.skip(arrayStart);
+
+        try (JsonParser parser = jsonFactory.createParser(reader)) {
+            parser.nextToken(); // START_ARRAY
+            JsonToken token;
+            while ((token = parser.nextToken()) != null && token != JsonToken.END_ARRAY) {
+                if (token == JsonToken.START_OBJECT) {
+                    questions.add(bindQuestion(parser));
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        } catch (JsonProcessingException e) {
+            // Ответ оборван или испорчен дальше по тексту - оставляем то, что успели прочитать
+        }
+        return questions;
+    }
+
+    private Question bindQuestion(JsonParser parser) throws IOException {
+        Question question = new Question();
+        // Значения по умолчанию как у прежнего разбора через JsonNode.asText()
+        question.setText("");
+        question.setType(QuestionType.THEORY);
+        question.setOptions(new ArrayList<>());
+        question.setCorrectAnswer("");
+        question.setExplanation("");
+        question.setTags(new HashSet<>());
+        question.setDifficulty("JUNIOR");
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "text" -> question.setText(scalar(parser));
+                case "type" -> question.setType(parseType(scalar(parser)));
+                case "options" -> question.setOptions(readStrings(parser, new ArrayList<>()));
+                case "correctAnswer" -> question.setCorrectAnswer(scalar(parser));
+                case "explanation" -> question.setExplanation(scalar(parser));
+                case "tags" -> question.setTags(readStrings(parser, new HashSet<>()));
+                case "difficulty" -> question.setDifficulty(value == JsonToken.VALUE_NULL ? "JUNIOR" : scalar(parser));
+                default -> parser.skipChildren();
+            }
+        }
+        return question;
+    }
+
+    private String scalar(JsonParser parser) throws IOException {
+        if (parser.currentToken().isStructStart()) {
+            parser.skipChildren();
+            return "";
+        }
+        return parser.getValueAsString("");
+    }
+
+    private <C extends Collection<String>> C readStrings(JsonParser parser, C target) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return target;
+        }
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            target.add(scalar(parser));
+        }
+        return target;
+    }
+
+    private QuestionType parseType(String type) {
+        try {
+            return QuestionType.valueOf(type.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return QuestionType.THEORY; // значение по умолчанию
+        }
+    }
+
+    private String readErrorMessage(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            return scalar(parser);
+        }
+        String message = "";
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            if (field.equals("message")) {
+                message = scalar(parser);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return message;
+    }
+
+    private String readFirstChoiceContent(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return null;
+        }
+        String content = null;
+        JsonToken token = parser.nextToken();
+        if (token == JsonToken.START_OBJECT) {
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                if (field.equals("message") && parser.currentToken() == JsonToken.START_OBJECT) {
+                    content = readMessageContent(parser);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            token = parser.nextToken();
+        }
+        // Остальные choices не нужны
+        while (token != null && token != JsonToken.END_ARRAY) {
+            parser.skipChildren();
+            token = parser.nextToken();
+        }
+        return content;
+    }
+
+    private String readMessageContent(JsonParser parser) throws IOException {
+        String content = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            if (field.equals("content") && parser.currentToken() == JsonToken.VALUE_STRING) {
+                content = parser.getText();
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return content;
+    }
+
+    /**
+     * Начало полезной части: после блока рассуждений и открывающего markdown-ограждения.
+     */
+    private int payloadStart(String content) {
+        int start = 0;
+        int thinkEnd = content.lastIndexOf(THINK_END);
+        if (thinkEnd >= 0) {
+            start = thinkEnd + THINK_END.length();
+        }
+        // Ограждение считается открывающим, только если стоит до первой скобки: внутри вопросов тоже бывает ```
+        int fence = content.indexOf(FENCE, start);
+        int brace = content.indexOf('{', start);
+        if (fence >= 0 && (brace < 0 || fence < brace)) {
+            int lineEnd = content.indexOf('\n', fence);
+            start = lineEnd >= 0 ? lineEnd + 1 : fence + FENCE.length();
+        }
+        return start;
+    }
+}
@@ -0,0 +1,96 @@
+package quizApp.utils;
+
+import quizApp.model.Question;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Компактная запись ответов пользователя: один символ на вопрос теста.
+ * Вопросы берутся в порядке возрастания id - порядок коллекции Quiz.questions в БД не зафиксирован.
+ * Заглавная буква варианта хранится как есть, '-' - вопрос без ответа. Любой другой ответ
+ * кодируется как '?', а его исходный текст сохраняется отдельно (см. {@link #rawAnswers}),
+ * так что запись не теряет данных.
+ */
+public final class AnswerCodec {
+
+    public static final char NO_ANSWER = '-';
+    public static final char RAW_ANSWER = '?';
+
+    private AnswerCodec() {
+    }
+
+    public static String encode(List<Question> questions, Map<Question, String> answers) {
+        List<Question> ordered = ordered(questions);
+        StringBuilder encoded = new StringBuilder(ordered.size());
+        for (Question question : ordered) {
+            encoded.append(encodeAnswer(findAnswer(answers, question)));
+        }
+        return encoded.toString();
+    }
+
+    /**
+     * Ответы, закодированные как '?', по id вопроса - их нужно хранить рядом с закодированной строкой.
+     */
+    public static Map<Long, String> rawAnswers(List<Question> questions, Map<Question, String> answers) {
+        Map<Long, String> raw = new HashMap<>();
+        for (Question question : questions) {
+            String answer = findAnswer(answers, question);
+            if (encodeAnswer(answer) == RAW_ANSWER) {
+                raw.put(question.getId(), answer);
+            }
+        }
+        return raw;
+    }
+
+    /**
+     * Обратное преобразование; вопросы без ответа в карту не попадают.
+     */
+    public static Map<Question, String> decode(String encoded, List<Question> questions, Map<Long, String> rawAnswers) {
+        List<Question> ordered = ordered(questions);
+        Map<Question, String> answers = new LinkedHashMap<>();
+        for (int i = 0; i < Math.min(encoded.length(), ordered.size()); i++) {
+            char answer = encoded.charAt(i);
+            if (answer == RAW_ANSWER) {
+                answers.put(ordered.get(i), rawAnswers.get(ordered.get(i).getId()));
+            } else if (answer != NO_ANSWER) {
+                answers.put(ordered.get(i), String.valueOf(answer));
+            }
+        }
+        return answers;
+    }
+
+    // Одним символом записываются только ответы, которые декодируются обратно в ту же строку
+    public static char encodeAnswer(String answer) {
+        if (answer == null) {
+            return NO_ANSWER;
+        }
+        if (answer.length() == 1 && answer.charAt(0) >= 'A' && answer.charAt(0) <= 'Z') {
+            return answer.charAt(0);
+        }
+        return RAW_ANSWER;
+    }
+
+    private static List<Question> ordered(List<Question> questions) {
+        return questions.stream()
+                .sorted(Comparator.comparing(Question::getId, Comparator.nullsLast(Comparator.naturalOrder())))
+                .toList();
+    }
+
+    // Ключи карты могут быть другими экземплярами тех же вопросов (прокси, отсоединённые копии)
+    private static String findAnswer(Map<Question, String> answers, Question question) {
+        String answer = answers.get(question);
+        if (answer != null || question.getId() == null) {
+            return answer;
+        }
+        for (Map.Entry<Question, String> entry : answers.entrySet()) {
+            if (question.getId().equals(entry.getKey().getId())) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+}
@@ -1,5 +1,6 @@
 package quizApp.utils;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -13,6 +14,9 @@ import org.springframework.security.web.authentication.WebAuthenticationDetailsS
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
+import quizApp.model.dto.UserPrincipal;
+import quizApp.service.PrincipalCache;
+import quizApp.service.TokenVersionTable;
 import quizApp.service.UserDetailsServiceImpl;
 
 import java.io.IOException;
@@ -27,6 +31,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsServiceImpl userDetailsService;
 
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private TokenVersionTable tokenVersions;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
@@ -35,22 +45,28 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = parseJwt(request);
 
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                String username = jwtUtils.getUserNameFromJwtToken(jwt);
+            Claims claims = jwt != null ? jwtUtils.parseVerifiedClaims(jwt) : null;
+
+            if (claims != null) {
+                String username = claims.getSubject();
 
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                UserDetails userDetails = resolveUser(claims);
 
-                UsernamePasswordAuthenticationToken authentication =
-                        new UsernamePasswordAuthenticationToken(
-                                userDetails,
-                                null, // credentials - обычно null после аутентификации
-                                userDetails.getAuthorities());
+                if (userDetails != null) {
+                    UsernamePasswordAuthenticationToken authentication =
+                            new UsernamePasswordAuthenticationToken(
+                                    userDetails,
+                                    null, // credentials - обычно null после аутентификации
+                                    userDetails.getAuthorities());
 
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
 
-                log.debug("Authenticated user: {}", username);
+                    log.debug("Authenticated user: {}", username);
+                } else {
+                    log.debug("Rejected revoked token of user: {}", username);
+                }
             }
         } catch (Exception e) {
             log.error("Cannot set user authentication: {}", e.getMessage());
@@ -59,6 +75,29 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * Токен с claims текущей версии принимается как есть; устаревший отклоняется (null).
+     * Токены без claims и пользователи, которых ещё нет в TokenVersionTable, проверяются по базе.
+     */
+    private UserDetails resolveUser(Claims claims) {
+        UserPrincipal fromToken = jwtUtils.getPrincipalFromClaims(claims);
+        if (fromToken != null) {
+            switch (tokenVersions.check(fromToken.getId(), fromToken.getTokenVersion())) {
+                case CURRENT:
+                    return fromToken;
+                case STALE:
+                    return null;
+                default:
+                    break;
+            }
+        }
+        UserDetails loaded = principalCache.get(claims.getSubject(), userDetailsService::loadUserByUsername);
+        if (fromToken != null && ((UserPrincipal) loaded).getTokenVersion() != fromToken.getTokenVersion()) {
+            return null;
+        }
+        return loaded;
+    }
+
     private String parseJwt(HttpServletRequest request) {
         String headerAuth = request.getHeader("Authorization");
 
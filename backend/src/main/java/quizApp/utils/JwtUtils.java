@@ -1,18 +1,24 @@
 package quizApp.utils;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Component;
+import quizApp.model.Role;
 import quizApp.model.dto.UserPrincipal;
 
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @Component
@@ -24,39 +30,113 @@ public class JwtUtils {
     @Value("${app.jwt.expiration.ms:86400000}")
     private int jwtExpirationMs;
 
+    // id, имя, роль и версия токена в claims: фильтру не нужно загружать пользователя из базы
+    @Value("${quiz.auth.self-contained-tokens:false}")
+    private boolean selfContainedTokens;
+
+    // 0 - без кэша, каждый запрос проверяет подпись
+    @Value("${quiz.auth.verified-token-cache.max-size:10000}")
+    private long verifiedTokenCacheSize;
+
+    static final String CLAIM_USER_ID = "uid";
+    static final String CLAIM_NAME = "name";
+    static final String CLAIM_ROLE = "role";
+    static final String CLAIM_VERSION = "ver";
+
+    private SecretKey secretKey;
+    private JwtParser parser;
+
+    // Уже проверенные токены -> claims, до истечения срока токена. Ключ - сам токен: сравнение строк точное
+    private Cache<String, Claims> verifiedTokens;
+
+    @PostConstruct
+    void init() {
+        secretKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parserBuilder().setSigningKey(secretKey).build();
+        verifiedTokens = verifiedTokenCacheSize > 0
+                ? Caffeine.newBuilder()
+                        .maximumSize(verifiedTokenCacheSize)
+                        .expireAfter(new UntilTokenExpiry())
+                        .build()
+                : null;
+    }
+
     public SecretKey getSecretKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        return secretKey;
     }
 
     public String generateJwtToken(Authentication authentication) {
         UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
 
-        return Jwts.builder()
+        JwtBuilder builder = Jwts.builder()
                 .setSubject(userPrincipal.getUsername())
                 .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + jwtExpirationMs))
-                .signWith(SignatureAlgorithm.HS512, getSecretKey())
-                .compact();
+                .setExpiration(new Date(System.currentTimeMillis() + jwtExpirationMs));
+        if (selfContainedTokens) {
+            builder.claim(CLAIM_USER_ID, userPrincipal.getId())
+                    .claim(CLAIM_NAME, userPrincipal.getRealUsername())
+                    .claim(CLAIM_ROLE, userPrincipal.getRole().name())
+                    .claim(CLAIM_VERSION, userPrincipal.getTokenVersion());
+        }
+        return builder.signWith(SignatureAlgorithm.HS512, secretKey).compact();
+    }
+
+    /**
+     * Проверка подписи и срока за один разбор. Claims недействительного токена - null.
+     * Повторный запрос с тем же токеном берёт claims из кэша без проверки HMAC.
+     */
+    public Claims parseVerifiedClaims(String token) {
+        if (verifiedTokens == null) {
+            return parseOrNull(token);
+        }
+        Claims cached = verifiedTokens.getIfPresent(token);
+        if (cached != null) {
+            return cached;
+        }
+        Claims claims = parseOrNull(token);
+        if (claims != null && claims.getExpiration() != null) {
+            verifiedTokens.put(token, claims);
+        }
+        return claims;
+    }
+
+    public Claims getClaimsFromJwtToken(String token) {
+        return parser.parseClaimsJws(token).getBody();
+    }
+
+    /**
+     * Пользователь из claims токена или null, если токен выдан без них.
+     * Пароля в таком UserPrincipal нет.
+     */
+    public UserPrincipal getPrincipalFromClaims(Claims claims) {
+        Number id = claims.get(CLAIM_USER_ID, Number.class);
+        String role = claims.get(CLAIM_ROLE, String.class);
+        Number version = claims.get(CLAIM_VERSION, Number.class);
+        if (id == null || role == null || version == null) {
+            return null;
+        }
+        return new UserPrincipal(id.longValue(), claims.get(CLAIM_NAME, String.class), claims.getSubject(), null,
+                Role.valueOf(role), version.intValue());
     }
 
     public String getUserNameFromJwtToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSecretKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+        return getClaimsFromJwtToken(token).getSubject();
     }
 
 
     public boolean validateJwtToken(String authToken) {
+        return parseVerifiedClaims(authToken) != null;
+    }
+
+
+    public Date getExpirationDateFromToken(String token) {
+        return getClaimsFromJwtToken(token).getExpiration();
+    }
+
+    private Claims parseOrNull(String token) {
         try {
-            Jwts.parserBuilder()
-                    .setSigningKey(getSecretKey())
-                    .build()
-                    .parseClaimsJws(authToken);
-            return true;
-        } catch (SecurityException e) {
+            return parser.parseClaimsJws(token).getBody();
+        } catch (io.jsonwebtoken.security.SecurityException e) {
             log.error("Invalid JWT signature: {}", e.getMessage());
         } catch (MalformedJwtException e) {
             log.error("Invalid JWT token: {}", e.getMessage());
@@ -68,16 +148,25 @@ public class JwtUtils {
             log.error("JWT claims string is empty: {}", e.getMessage());
         }
 
-        return false;
+        return null;
     }
 
+    private static class UntilTokenExpiry implements Expiry<String, Claims> {
 
-    public Date getExpirationDateFromToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSecretKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getExpiration();
+        @Override
+        public long expireAfterCreate(String token, Claims claims, long currentTime) {
+            long millis = claims.getExpiration().getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(millis, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(String token, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String token, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,103 @@
+package quizApp.utils;
+
+import java.util.function.Consumer;
+
+/**
+ * Инкрементально вырезает объекты из массива "questions" по мере поступления
+ * токенов от модели. Каждый завершённый объект передаётся в consumer в виде
+ * строки JSON, не дожидаясь конца ответа.
+ */
+public class QuestionStreamExtractor {
+
+    private static final String ARRAY_KEY = "\"questions\"";
+
+    private final Consumer<String> onObject;
+    private final StringBuilder preamble = new StringBuilder();
+    private final StringBuilder current = new StringBuilder();
+
+    private boolean inArray;
+    private boolean finished;
+    private int depth;
+    private boolean inString;
+    private boolean escaped;
+
+    public QuestionStreamExtractor(Consumer<String> onObject) {
+        this.onObject = onObject;
+    }
+
+    public void append(CharSequence chunk) {
+        if (finished) {
+            return;
+        }
+        if (inArray) {
+            scan(chunk);
+            return;
+        }
+
+        // Пока массив не найден, копим текст до ключа "questions" и открывающей скобки
+        preamble.append(chunk);
+        int key = preamble.indexOf(ARRAY_KEY);
+        if (key < 0) {
+            int keep = Math.min(preamble.length(), ARRAY_KEY.length() - 1);
+            preamble.delete(0, preamble.length() - keep);
+            return;
+        }
+        int bracket = preamble.indexOf("[", key + ARRAY_KEY.length());
+        if (bracket < 0) {
+            return;
+        }
+        inArray = true;
+        String rest = preamble.substring(bracket + 1);
+        preamble.setLength(0);
+        scan(rest);
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+
+    private void scan(CharSequence chunk) {
+        for (int i = 0; i < chunk.length() && !finished; i++) {
+            char c = chunk.charAt(i);
+            if (depth > 0) {
+                current.append(c);
+            }
+
+            if (inString) {
+                if (escaped) {
+                    escaped = false;
+                } else if (c == '\\') {
+                    escaped = true;
+                } else if (c == '"') {
+                    inString = false;
+                }
+                continue;
+            }
+
+            switch (c) {
+                case '"' -> inString = true;
+                case '{' -> {
+                    if (depth == 0) {
+                        current.setLength(0);
+                        current.append(c);
+                    }
+                    depth++;
+                }
+                case '}' -> {
+                    depth--;
+                    if (depth == 0) {
+                        onObject.accept(current.toString());
+                        current.setLength(0);
+                    }
+                }
+                case ']' -> {
+                    if (depth == 0) {
+                        finished = true;
+                    }
+                }
+                default -> {
+                }
+            }
+        }
+    }
+}
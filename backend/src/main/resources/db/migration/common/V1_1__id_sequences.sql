@@ -0,0 +1,14 @@
+-- Question и Quiz получают id из последовательностей с шагом 50 (пакетная вставка) вместо AUTO_INCREMENT.
+-- В MySQL последовательность - таблица *_seq. Pooled-оптимизатор Hibernate выдаёт id начиная с next_val - 49,
+-- поэтому next_val = max(id) + 50: первый новый id идёт сразу за существующими.
+create table questions_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into questions_seq select coalesce(max(id), 0) + 50 from questions;
+
+create table quizzes_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into quizzes_seq select coalesce(max(id), 0) + 50 from quizzes;
@@ -0,0 +1,17 @@
+-- Варианты и теги вопроса переезжают из question_options/question_tags в JSON-колонки questions:
+-- вопрос читается одной строкой без двух коллекций. Данные переносятся целиком, после чего
+-- старые таблицы удаляются - их внешние ключи мешали бы удалять вопросы.
+-- У question_options нет колонки порядка, варианты берутся в порядке хранения строк.
+alter table questions add column options json;
+
+alter table questions add column tags json;
+
+update questions q set options = (
+    select json_arrayagg(o.options) from question_options o where o.question_id = q.id);
+
+update questions q set tags = (
+    select json_arrayagg(t.tags) from question_tags t where t.question_id = q.id);
+
+drop table question_options;
+
+drop table question_tags;
@@ -0,0 +1,5 @@
+-- Пул заранее сгенерированных вопросов (QuestionPoolService) хранится в questions с pooled = true
+-- до выдачи. Существующие вопросы - обычный банк, поэтому колонка сразу заполняется false.
+alter table questions add column pooled bit not null default false;
+
+alter table questions add column pool_tag varchar(255);
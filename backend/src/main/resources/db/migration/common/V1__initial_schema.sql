@@ -0,0 +1,137 @@
+-- Схема до перехода на миграции: ровно то, что ddl-auto=update создавал из тогдашних сущностей.
+-- Существующие базы получают эту версию как baseline и начинают с V1.1; всё, что появилось
+-- в сущностях позже, добавляют следующие миграции.
+
+create table answers (
+    correct bit not null,
+    option_letter varchar(1),
+    id bigint not null auto_increment,
+    question_id bigint not null,
+    text varchar(255) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table question_options (
+    question_id bigint not null,
+    options varchar(255)
+) engine=InnoDB;
+
+create table question_tags (
+    question_id bigint not null,
+    tags varchar(255)
+) engine=InnoDB;
+
+create table questions (
+    created_at datetime(6),
+    id bigint not null auto_increment,
+    updated_at datetime(6),
+    correct_answer varchar(255),
+    difficulty varchar(255),
+    explanation TEXT,
+    text TEXT not null,
+    type enum ('THEORY','CODE','OUTPUT'),
+    primary key (id)
+) engine=InnoDB;
+
+create table quiz_questions (
+    question_id bigint not null,
+    quiz_id bigint not null
+) engine=InnoDB;
+
+create table quiz_results (
+    attempt_number integer,
+    score integer,
+    total_questions integer,
+    completed_at datetime(6),
+    id bigint not null auto_increment,
+    quiz_id bigint,
+    user_id bigint,
+    primary key (id)
+) engine=InnoDB;
+
+create table quiz_tags (
+    quiz_id bigint not null,
+    tags varchar(255)
+) engine=InnoDB;
+
+create table quizzes (
+    time_limit integer,
+    created_at datetime(6),
+    id bigint not null auto_increment,
+    description varchar(255),
+    difficulty varchar(255),
+    title varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table user_answers (
+    question_id bigint not null,
+    result_id bigint not null,
+    user_answer varchar(255),
+    primary key (question_id, result_id)
+) engine=InnoDB;
+
+create table users (
+    id bigint not null auto_increment,
+    email varchar(255) not null,
+    password varchar(255) not null,
+    username varchar(255) not null,
+    role enum ('ROLE_USER','ROLE_ADMIN') not null,
+    primary key (id)
+) engine=InnoDB;
+
+alter table users 
+   add constraint UK_6dotkott2kjsp8vw4d0m25fb7 unique (email);
+
+alter table users 
+   add constraint UK_r43af9ap4edm43mmtq01oddj6 unique (username);
+
+alter table answers 
+   add constraint FK3erw1a3t0r78st8ty27x6v3g1 
+   foreign key (question_id) 
+   references questions (id);
+
+alter table question_options 
+   add constraint FKsb9v00wdrgc9qojtjkv7e1gkp 
+   foreign key (question_id) 
+   references questions (id);
+
+alter table question_tags 
+   add constraint FKee6kn1hbh2ka2qj64bv30esbw 
+   foreign key (question_id) 
+   references questions (id);
+
+alter table quiz_questions 
+   add constraint FKev41c723fx659v28pjycox15o 
+   foreign key (question_id) 
+   references questions (id);
+
+alter table quiz_questions 
+   add constraint FKanfmgf6ksbdnv7ojb0pfve54q 
+   foreign key (quiz_id) 
+   references quizzes (id);
+
+alter table quiz_results 
+   add constraint FKmmvfwhutqbn5u6n25e4405pw9 
+   foreign key (quiz_id) 
+   references quizzes (id);
+
+alter table quiz_results 
+   add constraint FKc31xkn83q9v6yf9gh2spkvxrc 
+   foreign key (user_id) 
+   references users (id);
+
+alter table quiz_tags 
+   add constraint FK4atpejtwycbiuvj0pe9draf7u 
+   foreign key (quiz_id) 
+   references quizzes (id);
+
+alter table user_answers 
+   add constraint FK6b46l4bb7a6wfxvmn6l7ig8vo 
+   foreign key (question_id) 
+   references questions (id);
+
+alter table user_answers 
+   add constraint FK71l5t4o1kjicncoc1unvg8p1j 
+   foreign key (result_id) 
+   references quiz_results (id);
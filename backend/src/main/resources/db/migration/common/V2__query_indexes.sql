@@ -0,0 +1,20 @@
+-- Индексы под запросы репозиториев; QueryPlanTest проверяет, что ни один запрос не читает таблицу целиком.
+-- quiz_results.quiz_id, quiz_results.user_id и quiz_questions уже проиндексированы внешними ключами из V1.
+
+-- QuestionRepository.findByTagsInAndDifficulty: сложность фильтрует, id задаёт порядок страницы
+create index idx_questions_difficulty on questions (difficulty, id);
+
+-- QuestionRepository.findPooledForUpdate и countByPooledTrueAndPoolTagAndDifficulty
+create index idx_questions_pool on questions (pooled, pool_tag, difficulty, id);
+
+-- QuizResultRepository.findByUser: история пользователя по времени прохождения
+create index idx_quiz_results_user_completed on quiz_results (user_id, completed_at);
+
+-- QuizResultRepository.findByOrderByCompletedAtDesc
+create index idx_quiz_results_completed on quiz_results (completed_at);
+
+-- Статистика админки: countByMinScore и findAverageScore читают только индекс
+create index idx_quiz_results_score on quiz_results (score);
+
+-- Теги в каталоге (QuizRepository.SUMMARY_SELECT) берутся из индекса без обращения к таблице
+create index idx_quiz_tags_quiz on quiz_tags (quiz_id, tags);
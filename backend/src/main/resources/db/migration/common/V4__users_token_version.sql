@@ -0,0 +1,2 @@
+-- Версия токенов пользователя: растёт при смене роли, токены со старой версией отклоняются (TokenVersionTable)
+alter table users add column token_version integer not null default 0;
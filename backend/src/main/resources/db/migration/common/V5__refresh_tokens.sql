@@ -0,0 +1,26 @@
+-- Refresh-токены (RefreshTokenService): хранится только SHA-256 токена,
+-- family_id - цепочка ротаций одного входа, used_at - токен уже обменян на новый
+create table refresh_tokens (
+    id bigint not null auto_increment,
+    user_id bigint not null,
+    token_hash varchar(64) not null,
+    family_id varchar(36) not null,
+    expires_at datetime(6) not null,
+    used_at datetime(6),
+    revoked bit not null,
+    primary key (id)
+) engine=InnoDB;
+
+alter table refresh_tokens
+   add constraint uk_refresh_tokens_token_hash unique (token_hash);
+
+alter table refresh_tokens
+   add constraint fk_refresh_tokens_user
+   foreign key (user_id)
+   references users (id);
+
+-- RefreshTokenRepository.revokeFamily
+create index idx_refresh_tokens_family on refresh_tokens (family_id);
+
+-- RefreshTokenRepository.deleteExpired
+create index idx_refresh_tokens_expires on refresh_tokens (expires_at);
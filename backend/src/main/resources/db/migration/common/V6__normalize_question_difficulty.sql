@@ -0,0 +1,4 @@
+-- Сложность вопроса теперь хранится в верхнем регистре (Question.normalizeDifficulty): выборки
+-- сравнивают её через =, а в регистрозависимой сортировке "Junior" не совпал бы с "JUNIOR".
+-- Приводим к тому же виду строки, записанные раньше как пришли от клиента или ИИ.
+update questions set difficulty = upper(trim(difficulty)) where difficulty is not null;
@@ -0,0 +1,3 @@
+-- Multi-valued индекс по JSON-массиву тегов: его использует MEMBER OF из json_has_tag
+-- (QuestionRepository.findByTagsContaining, findByTagsInAndDifficulty). Есть только в MySQL 8.0.17+.
+create index idx_questions_tags on questions ((cast(tags as char(64) array)));
@@ -0,0 +1,105 @@
+package quizApp.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import quizApp.exception.ServiceUnavailableException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BoundedPasswordEncoderTest {
+
+    private ThreadPoolTaskExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(1);
+        executor.setThreadNamePrefix("pwd-hash-test-");
+        executor.initialize();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void encodeAndMatches_shouldRunOnHashingPool() {
+        // Given
+        PasswordEncoder encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(4), executor, 2);
+
+        // When
+        String hash = encoder.encode("secret");
+
+        // Then
+        assertThat(encoder.matches("secret", hash)).isTrue();
+        assertThat(encoder.matches("wrong", hash)).isFalse();
+    }
+
+    @Test
+    void saturatedPool_shouldRejectWithRetryAfter() throws Exception {
+        // Given
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        PasswordEncoder slow = new BCryptPasswordEncoder(4) {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                started.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.encode(rawPassword);
+            }
+        };
+        PasswordEncoder encoder = new BoundedPasswordEncoder(slow, executor, 2);
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("first"), callers);
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("second"), callers);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (executor.getThreadPoolExecutor().getQueue().isEmpty() && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+
+        // When & Then
+        assertThatThrownBy(() -> encoder.encode("third"))
+                .isInstanceOf(ServiceUnavailableException.class)
+                .satisfies(e -> assertThat(((ServiceUnavailableException) e).getRetryAfterSeconds()).isEqualTo(2));
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).startsWith("$2a$04$");
+        assertThat(queued.get(5, TimeUnit.SECONDS)).startsWith("$2a$04$");
+        callers.shutdown();
+    }
+
+    @Test
+    void delegateFailure_shouldPropagateUnwrapped() {
+        // Given
+        PasswordEncoder failing = new BCryptPasswordEncoder(4) {
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                throw new IllegalArgumentException("bad hash");
+            }
+        };
+        PasswordEncoder encoder = new BoundedPasswordEncoder(failing, executor, 2);
+
+        // When & Then
+        assertThatThrownBy(() -> encoder.matches("secret", "hash"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("bad hash");
+    }
+}
@@ -0,0 +1,148 @@
+package quizApp.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Маршрутизация на двух отдельных базах H2: каждая знает своё имя, так что по ответу видно,
+ * куда ушёл запрос.
+ */
+class ReadWriteRoutingDataSourceTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    private ReadWriteRoutingDataSource routing;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate writeTransaction;
+    private TransactionTemplate readOnlyTransaction;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = database("primary");
+        DataSource replica = database("replica");
+        routing = new ReadWriteRoutingDataSource(primary, replica, Duration.ofSeconds(5), Duration.ofSeconds(10),
+                nanos::get);
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        writeTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransaction_shouldGoToReplica() {
+        // When
+        String read = readOnlyTransaction.execute(status -> node());
+        String written = writeTransaction.execute(status -> node());
+
+        // Then
+        assertThat(read).isEqualTo("replica");
+        assertThat(written).isEqualTo("primary");
+    }
+
+    @Test
+    void readAfterOwnWrite_shouldStickToPrimaryUntilWindowEnds() {
+        // Given
+        authenticate("alice");
+        writeTransaction.executeWithoutResult(status -> jdbcTemplate.update("UPDATE node SET name = name"));
+
+        // When
+        String ownRead = readOnlyTransaction.execute(status -> node());
+        authenticate("bob");
+        String otherRead = readOnlyTransaction.execute(status -> node());
+        authenticate("alice");
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(11));
+        String laterRead = readOnlyTransaction.execute(status -> node());
+
+        // Then
+        assertThat(ownRead).isEqualTo("primary");
+        assertThat(otherRead).isEqualTo("replica");
+        assertThat(laterRead).isEqualTo("replica");
+    }
+
+    @Test
+    void rolledBackWrite_shouldNotMakeUserSticky() {
+        // Given
+        authenticate("alice");
+        writeTransaction.executeWithoutResult(status -> {
+            jdbcTemplate.update("UPDATE node SET name = name");
+            status.setRollbackOnly();
+        });
+
+        // When
+        String read = readOnlyTransaction.execute(status -> node());
+
+        // Then
+        assertThat(read).isEqualTo("replica");
+    }
+
+    @Test
+    void laggingReplica_shouldBeBypassed() {
+        // When
+        routing.updateReplicaState(true, 6);
+        String lagging = readOnlyTransaction.execute(status -> node());
+        routing.updateReplicaState(true, 5);
+        String caughtUp = readOnlyTransaction.execute(status -> node());
+
+        // Then
+        assertThat(lagging).isEqualTo("primary");
+        assertThat(caughtUp).isEqualTo("replica");
+    }
+
+    @Test
+    void checkReplica_shouldBypassUnreachableReplica() {
+        // Given
+        ReadWriteRoutingDataSource broken = new ReadWriteRoutingDataSource(database("primary"),
+                new DriverManagerDataSource("jdbc:h2:mem:missing;IFEXISTS=TRUE", "sa", ""),
+                Duration.ofSeconds(5), Duration.ofSeconds(10));
+
+        // When
+        broken.checkReplica();
+        routing.checkReplica();
+
+        // Then
+        assertThat(broken.isReplicaUsable()).isFalse();
+        assertThat(routing.isReplicaUsable()).isTrue();
+    }
+
+    private String node() {
+        return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+    }
+
+    private static DataSource database(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:routing_" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE IF NOT EXISTS node (name VARCHAR(20))");
+        jdbc.update("DELETE FROM node");
+        jdbc.update("INSERT INTO node VALUES (?)", name);
+        return dataSource;
+    }
+
+    private static void authenticate(String username) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(username, null, List.of()));
+    }
+}
@@ -0,0 +1,123 @@
+package quizApp.load;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.util.ReflectionTestUtils;
+import quizApp.model.Role;
+import quizApp.model.dto.UserPrincipal;
+import quizApp.utils.JwtUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Стоимость проверки JWT на один запрос:
+ * <ul>
+ *     <li>legacyDoubleParse - как было: ключ строится заново, подпись проверяется дважды
+ *     (validateJwtToken и getUserNameFromJwtToken);</li>
+ *     <li>singleParse - один разбор готовым парсером, без кэша;</li>
+ *     <li>cachedClaims - повторный запрос с тем же токеном, claims из кэша проверенных токенов.</li>
+ * </ul>
+ * Запуск: {@code mvn test -Pload -Dtest=JwtValidationBenchmark}. Сводка пишется в target/jwt-benchmark.txt.
+ */
+@Tag("load")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(0)
+public class JwtValidationBenchmark {
+
+    private static final String SECRET = "benchmark-secret-key-that-is-long-enough-for-hs512-signatures-0123456789";
+
+    private JwtUtils uncached;
+    private JwtUtils cached;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        uncached = jwtUtils(0L);
+        cached = jwtUtils(10_000L);
+        UserPrincipal principal = new UserPrincipal(7L, "student", "student@example.com", null, Role.ROLE_USER, 0);
+        token = cached.generateJwtToken(new UsernamePasswordAuthenticationToken(principal, null, List.of()));
+        cached.parseVerifiedClaims(token);
+    }
+
+    @Benchmark
+    public String legacyDoubleParse() {
+        Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .build()
+                .parseClaimsJws(token);
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .build()
+                .parseClaimsJws(token)
+                .getBody()
+                .getSubject();
+    }
+
+    @Benchmark
+    public Claims singleParse() {
+        return uncached.parseVerifiedClaims(token);
+    }
+
+    @Benchmark
+    public Claims cachedClaims() {
+        return cached.parseVerifiedClaims(token);
+    }
+
+    @Test
+    void run() throws Exception {
+        Options options = new OptionsBuilder()
+                .include(JwtValidationBenchmark.class.getName() + "\\.")
+                .build();
+        Collection<RunResult> results = new Runner(options).run();
+
+        StringBuilder summary = new StringBuilder("JWT validation, ns per request\n");
+        for (RunResult result : results) {
+            summary.append(String.format("%-20s %12.1f +- %.1f%n", result.getParams().getBenchmark()
+                            .substring(JwtValidationBenchmark.class.getName().length() + 1),
+                    result.getPrimaryResult().getScore(), result.getPrimaryResult().getScoreError()));
+        }
+        System.out.println(summary);
+        Files.writeString(Path.of("target", "jwt-benchmark.txt"), summary, StandardCharsets.UTF_8);
+
+        assertThat(results).hasSize(3);
+    }
+
+    private static JwtUtils jwtUtils(long cacheSize) {
+        JwtUtils jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 3_600_000);
+        ReflectionTestUtils.setField(jwtUtils, "selfContainedTokens", true);
+        ReflectionTestUtils.setField(jwtUtils, "verifiedTokenCacheSize", cacheSize);
+        ReflectionTestUtils.invokeMethod(jwtUtils, "init");
+        return jwtUtils;
+    }
+}
@@ -0,0 +1,101 @@
+package quizApp.load;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Сводка нагрузочного прогона: пропускная способность, перцентили задержек
+ * и разбивка ошибок по операциям и статусам.
+ */
+public class LoadReport {
+
+    private final Map<String, List<Long>> latencies = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> errors = new ConcurrentHashMap<>();
+    private final AtomicLong sessions = new AtomicLong();
+    private final AtomicLong failedSessions = new AtomicLong();
+    private volatile long startedAt;
+    private volatile long finishedAt;
+
+    public void start() {
+        startedAt = System.nanoTime();
+    }
+
+    public void finish() {
+        finishedAt = System.nanoTime();
+    }
+
+    public void record(String operation, long latencyNanos, int status) {
+        latencies.computeIfAbsent(operation, key -> Collections.synchronizedList(new ArrayList<>())).add(latencyNanos);
+        if (status < 200 || status >= 300) {
+            errors.computeIfAbsent(operation + " " + (status == 0 ? "IO" : status), key -> new AtomicLong())
+                    .incrementAndGet();
+        }
+    }
+
+    public void recordFailure(String operation, String reason) {
+        errors.computeIfAbsent(operation + " " + reason, key -> new AtomicLong()).incrementAndGet();
+    }
+
+    public void sessionFinished(boolean success) {
+        sessions.incrementAndGet();
+        if (!success) {
+            failedSessions.incrementAndGet();
+        }
+    }
+
+    public long totalRequests() {
+        return latencies.values().stream().mapToLong(List::size).sum();
+    }
+
+    public long totalErrors() {
+        return errors.values().stream().mapToLong(AtomicLong::get).sum();
+    }
+
+    public double errorRate() {
+        long total = totalRequests();
+        return total == 0 ? 0 : (double) totalErrors() / total;
+    }
+
+    public String format() {
+        double seconds = Math.max(1, finishedAt - startedAt) / 1e9;
+        StringBuilder out = new StringBuilder();
+        out.append(String.format(Locale.ROOT, "Sessions: %d (failed %d), requests: %d, errors: %d (%.2f%%), %.1f s, %.1f req/s%n",
+                sessions.get(), failedSessions.get(), totalRequests(), totalErrors(), errorRate() * 100,
+                seconds, totalRequests() / seconds));
+        out.append(String.format(Locale.ROOT, "%-12s %7s %9s %9s %9s %9s %9s %9s%n",
+                "operation", "count", "req/s", "p50 ms", "p90 ms", "p95 ms", "p99 ms", "max ms"));
+
+        new TreeMap<>(latencies).forEach((operation, samples) -> {
+            List<Long> sorted;
+            synchronized (samples) {
+                sorted = new ArrayList<>(samples);
+            }
+            Collections.sort(sorted);
+            out.append(String.format(Locale.ROOT, "%-12s %7d %9.1f %9.1f %9.1f %9.1f %9.1f %9.1f%n",
+                    operation, sorted.size(), sorted.size() / seconds,
+                    percentile(sorted, 0.50), percentile(sorted, 0.90), percentile(sorted, 0.95),
+                    percentile(sorted, 0.99), percentile(sorted, 1.0)));
+        });
+
+        if (!errors.isEmpty()) {
+            out.append("Errors:").append(System.lineSeparator());
+            new TreeMap<>(errors).forEach((key, count) ->
+                    out.append(String.format(Locale.ROOT, "  %-24s %d%n", key, count.get())));
+        }
+        return out.toString();
+    }
+
+    private double percentile(List<Long> sorted, double percentile) {
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.size()) - 1;
+        return sorted.get(Math.max(0, index)) / 1e6;
+    }
+}
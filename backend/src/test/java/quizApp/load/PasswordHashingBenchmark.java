@@ -0,0 +1,83 @@
+package quizApp.load;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Сколько входов в секунду выдерживает одно ядро: проверка пароля BCrypt в одном потоке.
+ * Стоимость по умолчанию - quiz.password-hashing.bcrypt-strength (10), другую можно передать
+ * через {@code -Dbcrypt.strength}. Ёмкость пула хэширования примерно равна результату,
+ * умноженному на quiz.password-hashing.pool-size.
+ * <p>
+ * Запуск: {@code mvn test -Pload -Dtest=PasswordHashingBenchmark}. Сводка пишется в target/password-benchmark.txt.
+ */
+@Tag("load")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Threads(1)
+@Fork(0)
+public class PasswordHashingBenchmark {
+
+    @Param("10")
+    public int strength;
+
+    private BCryptPasswordEncoder encoder;
+    private String hash;
+
+    @Setup
+    public void setUp() {
+        encoder = new BCryptPasswordEncoder(strength);
+        hash = encoder.encode("correct horse battery staple");
+    }
+
+    @Benchmark
+    public boolean login() {
+        return encoder.matches("correct horse battery staple", hash);
+    }
+
+    @Test
+    void run() throws Exception {
+        String strength = System.getProperty("bcrypt.strength", "10");
+        Options options = new OptionsBuilder()
+                .include(PasswordHashingBenchmark.class.getName() + "\\.")
+                .param("strength", strength)
+                .build();
+        Collection<RunResult> results = new Runner(options).run();
+
+        RunResult result = results.iterator().next();
+        String summary = String.format("BCrypt cost %s: %.1f +- %.1f logins/s per core%n", strength,
+                result.getPrimaryResult().getScore(), result.getPrimaryResult().getScoreError());
+        System.out.println(summary);
+        Files.writeString(Path.of("target", "password-benchmark.txt"), summary, StandardCharsets.UTF_8);
+
+        assertThat(result.getPrimaryResult().getScore()).isPositive();
+    }
+}
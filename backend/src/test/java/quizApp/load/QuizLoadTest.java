@@ -0,0 +1,233 @@
+package quizApp.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import quizApp.utils.FakeOpenRouter;
+import quizApp.utils.OpenRouterStubServer;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Нагрузочный прогон: приложение на H2 в режиме MySQL, AI заменён FakeOpenRouter.
+ * Каждая сессия повторяет путь пользователя: регистрация, вход, генерация теста,
+ * список тестов, отправка ответов. Итоговая сводка пишется в лог и target/load-report.txt.
+ * <p>
+ * Запуск: {@code mvn test -Pload}. Параметры - системные свойства load.* и fake-openrouter.*,
+ * например {@code -Dload.sessions=500 -Dload.concurrency=50 -Dfake-openrouter.latency-median-ms=2000}.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:load;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "logging.level.root=WARN",
+        "logging.level.quizApp=WARN",
+        "jwt.secret-key=bG9hZC10ZXN0LXNlY3JldC1rZXktZm9yLWp3dC1zaWduaW5nLWhzNTEyLW11c3QtYmUtbG9uZy1lbm91Z2g=",
+        "cors.allowed.origins=http://localhost",
+        "cors.allowed.methods=GET,POST",
+        "cors.allowed.headers=*",
+        "ai.api.key=load-test",
+        "ai.api.model=fake/model",
+        "quiz.pool.enabled=false"
+})
+class QuizLoadTest {
+
+    private static final int SESSIONS = Integer.getInteger("load.sessions", 100);
+    private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 20);
+    private static final int QUESTION_COUNT = Integer.getInteger("load.question-count", 5);
+    private static final double STREAM_RATIO = Double.parseDouble(System.getProperty("load.stream-ratio", "0.2"));
+    private static final double MAX_ERROR_RATE = Double.parseDouble(System.getProperty("load.max-error-rate", "0.05"));
+    private static final List<String> TAGS = List.of("Collections", "Streams", "Concurrency", "JVM", "Spring");
+
+    private static final FakeOpenRouter fakeOpenRouter = FakeOpenRouter.fromSystemProperties();
+    private static final OpenRouterStubServer openRouter = startOpenRouter();
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient http = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+    private final LoadReport report = new LoadReport();
+
+    @LocalServerPort
+    private int port;
+
+    @DynamicPropertySource
+    static void aiProperties(DynamicPropertyRegistry registry) {
+        registry.add("ai.api.url", openRouter::url);
+    }
+
+    @AfterAll
+    static void stopOpenRouter() {
+        openRouter.close();
+    }
+
+    @Test
+    void replayUserSessions() throws Exception {
+        Semaphore concurrency = new Semaphore(CONCURRENCY);
+        report.start();
+        try (ExecutorService sessions = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < SESSIONS; i++) {
+                concurrency.acquire();
+                sessions.execute(() -> {
+                    try {
+                        report.sessionFinished(runSession());
+                    } finally {
+                        concurrency.release();
+                    }
+                });
+            }
+        }
+        report.finish();
+
+        String summary = report.format() + String.format("Fake OpenRouter: %d requests, %d errors, %d truncated%n",
+                fakeOpenRouter.getRequests(), fakeOpenRouter.getErrors(), fakeOpenRouter.getTruncated());
+        System.out.println(summary);
+        Files.writeString(Path.of("target", "load-report.txt"), summary, StandardCharsets.UTF_8);
+
+        assertThat(report.totalRequests()).isPositive();
+        assertThat(report.errorRate()).isLessThanOrEqualTo(MAX_ERROR_RATE);
+    }
+
+    private boolean runSession() {
+        String id = UUID.randomUUID().toString().substring(0, 8);
+        String email = "load-" + id + "@example.com";
+        String password = "secret-" + id;
+        try {
+            JsonNode registered = call("register", "POST", "/api/auth/register", null,
+                    Map.of("username", "load-" + id, "email", email, "password", password));
+            if (registered == null) {
+                return false;
+            }
+            JsonNode loggedIn = call("login", "POST", "/api/auth/login", null,
+                    Map.of("username", email, "password", password));
+            if (loggedIn == null) {
+                return false;
+            }
+            String token = loggedIn.path("token").asText();
+
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            Map<String, Object> quizRequest = Map.of(
+                    "tags", List.of(TAGS.get(random.nextInt(TAGS.size()))),
+                    "difficulty", "JUNIOR",
+                    "questionCount", QUESTION_COUNT);
+            JsonNode quiz = random.nextDouble() < STREAM_RATIO
+                    ? stream(token, quizRequest)
+                    : call("generate", "POST", "/api/quizzes/generate", token, quizRequest);
+            if (quiz == null) {
+                return false;
+            }
+
+            if (call("list", "GET", "/api/quizzes/catalogue?size=20", token, null) == null) {
+                return false;
+            }
+            return call("submit", "POST", "/api/quizzes/ai-submit", token, submission(quiz)) != null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private Map<String, Object> submission(JsonNode quiz) {
+        Map<String, String> answers = new HashMap<>();
+        JsonNode questions = quiz.path("questions");
+        for (int i = 0; i < questions.size(); i++) {
+            answers.put(String.valueOf(i + 1), String.valueOf("ABCD".charAt(ThreadLocalRandom.current().nextInt(4))));
+        }
+        return Map.of("answers", answers, "quizData", objectMapper.convertValue(quiz, Map.class));
+    }
+
+    /**
+     * Потоковая генерация: читаем SSE до события "quiz" с итоговым тестом.
+     */
+    private JsonNode stream(String token, Map<String, Object> quizRequest) throws InterruptedException {
+        HttpResponse<String> response = send("stream", request("POST", "/api/quizzes/generate/stream", token, quizRequest));
+        if (response == null || response.statusCode() != 200) {
+            return null;
+        }
+        String body = response.body();
+        int quizEvent = body.indexOf("event:quiz");
+        if (quizEvent < 0) {
+            report.recordFailure("stream", "no quiz event");
+            return null;
+        }
+        String data = body.substring(body.indexOf("data:", quizEvent) + 5).lines().findFirst().orElse("");
+        try {
+            return objectMapper.readTree(data);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private JsonNode call(String operation, String method, String path, String token, Object body)
+            throws InterruptedException {
+        HttpResponse<String> response = send(operation, request(method, path, token, body));
+        if (response == null || response.statusCode() >= 300) {
+            return null;
+        }
+        try {
+            return objectMapper.readTree(response.body());
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private HttpResponse<String> send(String operation, HttpRequest request) throws InterruptedException {
+        long startedAt = System.nanoTime();
+        try {
+            HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+            report.record(operation, System.nanoTime() - startedAt, response.statusCode());
+            return response;
+        } catch (IOException e) {
+            report.record(operation, System.nanoTime() - startedAt, 0);
+            return null;
+        }
+    }
+
+    private HttpRequest request(String method, String path, String token, Object body) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .timeout(Duration.ofMinutes(2))
+                .header("Content-Type", "application/json");
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        try {
+            return builder.method(method, body == null
+                    ? HttpRequest.BodyPublishers.noBody()
+                    : HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body))).build();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static OpenRouterStubServer startOpenRouter() {
+        try {
+            OpenRouterStubServer server = new OpenRouterStubServer();
+            server.setHandler(fakeOpenRouter);
+            return server;
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot start fake OpenRouter", e);
+        }
+    }
+}
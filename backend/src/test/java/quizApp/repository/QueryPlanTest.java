@@ -0,0 +1,182 @@
+package quizApp.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import quizApp.model.User;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Схема строится миграциями Flyway на H2 в режиме MySQL. Каждый запрос репозиториев
+ * выполняется, его SQL перехватывается и прогоняется через EXPLAIN: полный просмотр
+ * таблицы (tableScan в плане H2) допустим только для запросов из ALLOWED_SCANS.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:plans;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.flyway.enabled=true",
+        "spring.flyway.locations=classpath:db/migration/common",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "quiz.cache.enabled=false",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "quizApp.repository.QueryPlanTest$CapturingInspector"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class QueryPlanTest {
+
+    // Запросы, которым по смыслу нужна вся таблица (или поиск подстроки), и причина
+    private static final Map<String, String> ALLOWED_SCANS = Map.ofEntries(
+            Map.entry("QuestionRepository.findByTagsContaining",
+                    "в MySQL обслуживается multi-valued индексом idx_questions_tags, в H2 его нет"),
+            Map.entry("QuestionRepository.findByTag", "как findByTagsContaining"),
+            Map.entry("QuestionRepository.countByTag", "как findByTagsContaining"),
+            Map.entry("QuestionRepository.findAllDistinctTags", "собирает теги всех вопросов"),
+            Map.entry("QuestionRepository.countPerTagAndDifficulty",
+                    "группировка по всем вопросам банка; в MySQL - JSON_TABLE без промежуточных строк в Java"),
+            Map.entry("QuizRepository.findSummaries",
+                    "первая страница: ORDER BY id DESC LIMIT, MySQL читает первичный ключ с конца и останавливается"),
+            Map.entry("QuizResultRepository.findByOrderByCompletedAtDesc",
+                    "отдаёт все результаты; idx_quiz_results_completed избавляет от сортировки"),
+            Map.entry("UserRepository.findByUsernameContainingOrEmailContaining", "поиск подстроки LIKE '%...%'"),
+            Map.entry("UserRepository.searchUsers", "поиск подстроки LIKE '%...%'"),
+            Map.entry("UserRepository.findTokenVersions", "снимок версий токенов всех пользователей"));
+
+    public static class CapturingInspector implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private QuestionRepository questionRepository;
+
+    @Autowired
+    private QuizRepository quizRepository;
+
+    @Autowired
+    private QuizResultRepository quizResultRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @BeforeEach
+    void setUp() {
+        CapturingInspector.STATEMENTS.clear();
+    }
+
+    @Test
+    void repositoryQueries_shouldNotScanWholeTables() {
+        // Given
+        User user = new User();
+        user.setId(1L);
+        Map<String, Runnable> queries = new LinkedHashMap<>();
+        queries.put("QuestionRepository.findByTagsInAndDifficulty",
+                () -> questionRepository.findByTagsInAndDifficulty("Java", "JUNIOR", PageRequest.of(0, 10)));
+        queries.put("QuestionRepository.findByTagsContaining", () -> questionRepository.findByTagsContaining("Java"));
+        queries.put("QuestionRepository.findByTag", () -> questionRepository.findByTag("Java", PageRequest.of(0, 20)));
+        queries.put("QuestionRepository.countByTag", () -> questionRepository.countByTag("Java"));
+        queries.put("QuestionRepository.countByTagAndDifficulty",
+                () -> questionRepository.countByTagAndDifficulty("Java", "JUNIOR"));
+        queries.put("QuestionRepository.findByDifficultyAndPooledFalse", () -> questionRepository
+                .findByDifficultyAndPooledFalse("JUNIOR", PageRequest.of(0, 20, Sort.by("id"))));
+        queries.put("QuestionRepository.countByDifficultyAndPooledFalse",
+                () -> questionRepository.countByDifficultyAndPooledFalse("JUNIOR"));
+        queries.put("QuestionRepository.findByPooledFalse", () -> questionRepository.findByPooledFalse());
+        queries.put("QuestionRepository.countByPooledFalse", () -> questionRepository.countByPooledFalse());
+        queries.put("QuestionRepository.findByIdAndPooledFalse", () -> questionRepository.findByIdAndPooledFalse(1L));
+        queries.put("QuestionRepository.countPerTagAndDifficulty",
+                () -> questionRepository.countPerTagAndDifficulty());
+        queries.put("QuestionRepository.findAllDistinctTags", () -> questionRepository.findAllDistinctTags());
+        queries.put("QuestionRepository.findPooledForUpdate",
+                () -> questionRepository.findPooledForUpdate("java", "JUNIOR", PageRequest.of(0, 5)));
+        queries.put("QuestionRepository.countByPooledTrueAndPoolTagAndDifficulty",
+                () -> questionRepository.countByPooledTrueAndPoolTagAndDifficulty("java", "JUNIOR"));
+        queries.put("QuestionRepository.findById", () -> questionRepository.findById(1L));
+        queries.put("QuizRepository.findSummaries", () -> quizRepository.findSummaries(PageRequest.of(0, 20)));
+        queries.put("QuizRepository.findSummariesBefore",
+                () -> quizRepository.findSummariesBefore(100L, PageRequest.of(0, 20)));
+        queries.put("QuizRepository.findAllWithQuestions", () -> quizRepository.findAllWithQuestions());
+        queries.put("QuizRepository.findIdsByQuestionId", () -> quizRepository.findIdsByQuestionId(1L));
+        queries.put("QuizRepository.findById", () -> quizRepository.findById(1L));
+        queries.put("QuizResultRepository.findByUser", () -> quizResultRepository.findByUser(user));
+        queries.put("QuizResultRepository.findByIdAndUserId", () -> quizResultRepository.findByIdAndUserId(1L, 1L));
+        queries.put("QuizResultRepository.findMostActiveUsers", () -> quizResultRepository.findMostActiveUsers());
+        queries.put("QuizResultRepository.findAverageScore", () -> quizResultRepository.findAverageScore());
+        queries.put("QuizResultRepository.countByMinScore", () -> quizResultRepository.countByMinScore(6));
+        queries.put("QuizResultRepository.findByOrderByCompletedAtDesc",
+                () -> quizResultRepository.findByOrderByCompletedAtDesc());
+        queries.put("UserRepository.findByUsername", () -> userRepository.findByUsername("user"));
+        queries.put("UserRepository.findByEmail", () -> userRepository.findByEmail("user@example.com"));
+        queries.put("UserRepository.existsByUsername", () -> userRepository.existsByUsername("user"));
+        queries.put("UserRepository.existsByEmail", () -> userRepository.existsByEmail("user@example.com"));
+        queries.put("UserRepository.findByUsernameContainingOrEmailContaining",
+                () -> userRepository.findByUsernameContainingOrEmailContaining("user", "user"));
+        queries.put("UserRepository.searchUsers", () -> userRepository.searchUsers("user"));
+        queries.put("UserRepository.findTokenVersions", () -> userRepository.findTokenVersions());
+        queries.put("RefreshTokenRepository.findByTokenHashForUpdate",
+                () -> refreshTokenRepository.findByTokenHashForUpdate("hash"));
+        queries.put("RefreshTokenRepository.revokeFamily", () -> refreshTokenRepository.revokeFamily("family"));
+        queries.put("RefreshTokenRepository.deleteByUserId", () -> refreshTokenRepository.deleteByUserId(1L));
+        queries.put("RefreshTokenRepository.deleteExpired",
+                () -> refreshTokenRepository.deleteExpired(LocalDateTime.now()));
+
+        // When
+        Map<String, List<String>> scans = new LinkedHashMap<>();
+        queries.forEach((name, query) -> {
+            CapturingInspector.STATEMENTS.clear();
+            query.run();
+            assertThat(CapturingInspector.STATEMENTS).as(name).isNotEmpty();
+            List<String> scanned = new ArrayList<>();
+            for (String sql : CapturingInspector.STATEMENTS) {
+                String plan = explain(sql);
+                if (plan.contains(".tableScan")) {
+                    scanned.add(plan);
+                }
+            }
+            if (!scanned.isEmpty()) {
+                scans.put(name, scanned);
+            }
+        });
+
+        // Then
+        assertThat(scans.keySet()).as("full scans: %s", scans).isSubsetOf(ALLOWED_SCANS.keySet());
+    }
+
+    // Параметры не привязываются: H2 строит план и без их значений
+    private String explain(String sql) {
+        return jdbcTemplate.execute("EXPLAIN " + sql, (PreparedStatement statement) -> {
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet rows = statement.executeQuery()) {
+                while (rows.next()) {
+                    plan.append(rows.getString(1));
+                }
+            }
+            return plan.toString();
+        });
+    }
+}
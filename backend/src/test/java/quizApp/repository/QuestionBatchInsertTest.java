@@ -0,0 +1,66 @@
+package quizApp.repository;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import quizApp.model.Question;
+import quizApp.model.QuestionType;
+import quizApp.model.Quiz;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Замер числа обращений к базе при сохранении сгенерированного теста.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class QuestionBatchInsertTest {
+
+    private static final int QUESTION_COUNT = 20;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private QuestionRepository questionRepository;
+
+    @Autowired
+    private QuizRepository quizRepository;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void saveGeneratedQuiz_shouldWriteRowsInBatches() {
+        // Given
+        List<Question> questions = new ArrayList<>();
+        for (int i = 0; i < QUESTION_COUNT; i++) {
+            questions.add(new Question("Question " + i, QuestionType.THEORY, List.of("A", "B", "C", "D"), "A",
+                    "Explanation " + i, Set.of("Java", "Collections"), "JUNIOR"));
+        }
+
+        // When
+        List<Question> saved = questionRepository.saveAll(questions);
+        quizRepository.save(new Quiz("Quiz", "Batch", saved, Set.of("Java"), "JUNIOR", 30));
+        entityManager.flush();
+
+        // Then
+        long statements = statistics.getPrepareStatementCount();
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(QUESTION_COUNT + 1);
+        assertThat(saved).allSatisfy(question -> assertThat(question.getId()).isNotNull());
+        // По одному batch на таблицу плюс выборки из последовательностей
+        assertThat(statements).isLessThanOrEqualTo(8);
+    }
+}
@@ -4,8 +4,10 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import quizApp.model.Question;
 import quizApp.model.QuestionType;
 
@@ -78,4 +80,165 @@ class QuestionRepositoryTest {
         assertThat(tags).hasSize(4);
         assertThat(tags).contains("Java", "OOP", "Spring", "Framework");
     }
-}
\ No newline at end of file
+
+    @Test
+    void whenFindPooledForUpdate_thenReturnOnlyPooledQuestionsOfBucket() {
+        // Given
+        Question pooled = new Question();
+        pooled.setText("Pooled question");
+        pooled.setType(QuestionType.THEORY);
+        pooled.setOptions(List.of("A", "B", "C", "D"));
+        pooled.setCorrectAnswer("A");
+        pooled.setDifficulty("JUNIOR");
+        pooled.setTags(Set.of("Streams"));
+        pooled.setPooled(true);
+        pooled.setPoolTag("streams");
+
+        Question used = new Question();
+        used.setText("Used question");
+        used.setType(QuestionType.THEORY);
+        used.setOptions(List.of("A", "B", "C", "D"));
+        used.setCorrectAnswer("A");
+        used.setDifficulty("JUNIOR");
+        used.setTags(Set.of("Streams"));
+        used.setPoolTag("streams");
+
+        entityManager.persist(pooled);
+        entityManager.persist(used);
+        entityManager.flush();
+
+        // When
+        List<Question> questions = questionRepository.findPooledForUpdate("streams", "JUNIOR", PageRequest.of(0, 5));
+
+        // Then
+        assertThat(questions).extracting(Question::getText).containsExactly("Pooled question");
+        assertThat(questionRepository.countByPooledTrueAndPoolTagAndDifficulty("streams", "JUNIOR")).isEqualTo(1);
+    }
+
+    @Test
+    void whenFindByTagsInAndDifficulty_thenMatchWholeTagsOnly() {
+        // Given
+        Question streams = new Question("Streams question", QuestionType.THEORY, List.of("A", "B"), "A",
+                "Explanation", Set.of("Streams", "Java"), "JUNIOR");
+        Question javaScript = new Question("JS question", QuestionType.THEORY, List.of("A", "B"), "A",
+                "Explanation", Set.of("JavaScript"), "JUNIOR");
+        Question middle = new Question("Middle question", QuestionType.THEORY, List.of("A", "B"), "A",
+                "Explanation", Set.of("Java"), "MIDDLE");
+        entityManager.persist(streams);
+        entityManager.persist(javaScript);
+        entityManager.persist(middle);
+        entityManager.flush();
+        entityManager.clear();
+
+        // When
+        List<Question> questions = questionRepository.findByTagsInAndDifficulty("Java", "JUNIOR", PageRequest.of(0, 10));
+
+        // Then
+        assertThat(questions).singleElement().satisfies(question -> {
+            assertThat(question.getText()).isEqualTo("Streams question");
+            assertThat(question.getOptions()).containsExactly("A", "B");
+            assertThat(question.getTags()).containsExactlyInAnyOrder("Streams", "Java");
+        });
+    }
+
+    @Test
+    void whenCountingAndGrouping_thenDatabaseReturnsAggregates() {
+        // Given
+        entityManager.persist(new Question("Q1", QuestionType.THEORY, List.of("A", "B"), "A",
+                "Explanation", Set.of("Java", "Streams"), "JUNIOR"));
+        entityManager.persist(new Question("Q2", QuestionType.THEORY, List.of("A", "B"), "A",
+                "Explanation", Set.of("Java", "Streams"), "JUNIOR"));
+        entityManager.persist(new Question("Q3", QuestionType.THEORY, List.of("A", "B"), "A",
+                "Explanation", Set.of("Java"), "MIDDLE"));
+        entityManager.flush();
+        entityManager.clear();
+
+        // When
+        long javaCount = questionRepository.countByTag("Java");
+        long juniorJava = questionRepository.countByTagAndDifficulty("Java", "JUNIOR");
+        long middle = questionRepository.countByDifficultyAndPooledFalse("MIDDLE");
+        Page<Question> firstJunior = questionRepository.findByDifficultyAndPooledFalse("JUNIOR",
+                PageRequest.of(0, 1, Sort.by("id")));
+        Page<Question> streams = questionRepository.findByTag("Streams", PageRequest.of(0, 10));
+        List<Object[]> groups = questionRepository.countPerTagAndDifficulty();
+
+        // Then
+        assertThat(javaCount).isEqualTo(3);
+        assertThat(juniorJava).isEqualTo(2);
+        assertThat(middle).isEqualTo(1);
+        assertThat(firstJunior.getContent()).singleElement().extracting(Question::getText).isEqualTo("Q1");
+        assertThat(firstJunior.getTotalElements()).isEqualTo(2);
+        assertThat(streams.getTotalElements()).isEqualTo(2);
+        assertThat(groups).hasSize(3)
+                .anySatisfy(row -> assertThat(row).containsExactly("Java", "JUNIOR", 2L))
+                .anySatisfy(row -> assertThat(row).containsExactly("Streams", "JUNIOR", 2L))
+                .anySatisfy(row -> assertThat(row).containsExactly("Java", "MIDDLE", 1L));
+    }
+
+    @Test
+    void whenQuestionIsInPool_thenBankQueriesDoNotSeeIt() {
+        // Given
+        Question bank = new Question("Bank", QuestionType.THEORY, List.of("A", "B"), "A",
+                "Explanation", Set.of("Java"), "JUNIOR");
+        Question pooled = new Question("Pooled", QuestionType.THEORY, List.of("A", "B"), "A",
+                "Explanation", Set.of("Java", "Pool only"), "JUNIOR");
+        pooled.setPooled(true);
+        pooled.setPoolTag("java");
+        entityManager.persist(bank);
+        entityManager.persist(pooled);
+        entityManager.flush();
+        entityManager.clear();
+
+        // When & Then
+        assertThat(questionRepository.findByPooledFalse()).extracting(Question::getText).containsExactly("Bank");
+        assertThat(questionRepository.countByPooledFalse()).isEqualTo(1);
+        assertThat(questionRepository.findByIdAndPooledFalse(pooled.getId())).isEmpty();
+        assertThat(questionRepository.findByTagsContaining("Java")).extracting(Question::getText).containsExactly("Bank");
+        assertThat(questionRepository.findByTagsInAndDifficulty("Java", "JUNIOR", PageRequest.of(0, 10))).hasSize(1);
+        assertThat(questionRepository.findByTag("Java", PageRequest.of(0, 10)).getTotalElements()).isEqualTo(1);
+        assertThat(questionRepository.countByTag("Java")).isEqualTo(1);
+        assertThat(questionRepository.countByTagAndDifficulty("Java", "JUNIOR")).isEqualTo(1);
+        assertThat(questionRepository.countByDifficultyAndPooledFalse("JUNIOR")).isEqualTo(1);
+        assertThat(questionRepository.findAllDistinctTags()).containsExactly("Java");
+        assertThat(questionRepository.countPerTagAndDifficulty()).hasSize(1);
+        assertThat(questionRepository.countByPooledTrueAndPoolTagAndDifficulty("java", "JUNIOR")).isEqualTo(1);
+    }
+
+    @Test
+    void whenDifficultyWrittenInAnyCase_thenFoundByNormalizedValue() {
+        // Given
+        entityManager.persist(new Question("Mixed case", QuestionType.THEORY, List.of("A", "B"), "A",
+                "Explanation", Set.of("Java"), "Junior"));
+        Question question = new Question();
+        question.setText("Padded");
+        question.setDifficulty(" middle ");
+        question.setTags(Set.of("Java"));
+        entityManager.persist(question);
+        entityManager.flush();
+        entityManager.clear();
+
+        // When & Then
+        assertThat(questionRepository.countByDifficultyAndPooledFalse("JUNIOR")).isEqualTo(1);
+        assertThat(questionRepository.countByTagAndDifficulty("Java", "MIDDLE")).isEqualTo(1);
+        assertThat(questionRepository.findByTagsInAndDifficulty("Java", "JUNIOR", PageRequest.of(0, 10)))
+                .extracting(Question::getDifficulty).containsExactly("JUNIOR");
+    }
+
+    @Test
+    void whenTagIsLongerThanIndexLimit_thenSavedTruncated() {
+        // Given
+        String longTag = "Concurrency ".repeat(10);
+        Question question = new Question("Long tag", QuestionType.THEORY, List.of("A", "B"), "A",
+                "Explanation", Set.of("Java", longTag, " "), "JUNIOR");
+
+        // When
+        Long id = questionRepository.saveAndFlush(question).getId();
+        entityManager.clear();
+
+        // Then
+        Set<String> tags = questionRepository.findById(id).orElseThrow().getTags();
+        assertThat(tags).hasSize(2).contains("Java")
+                .allSatisfy(tag -> assertThat(tag.length()).isLessThanOrEqualTo(Question.MAX_TAG_LENGTH));
+        assertThat(tags).anySatisfy(tag -> assertThat(longTag).startsWith(tag));
+    }
+}
@@ -0,0 +1,151 @@
+package quizApp.repository;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import quizApp.model.Question;
+import quizApp.model.QuestionType;
+import quizApp.model.Quiz;
+import quizApp.model.QuizResult;
+import quizApp.model.dto.QuizCataloguePage;
+import quizApp.model.dto.QuizResponse;
+import quizApp.service.AIService;
+import quizApp.service.QuestionPoolService;
+import quizApp.service.QuestionService;
+import quizApp.service.QuizResponseCache;
+import quizApp.service.QuizService;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Число SQL-запросов на каждый сценарий чтения не должно зависеть от числа тестов и вопросов.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({QuizService.class, QuestionService.class})
+class QuizFetchPlanTest {
+
+    private static final int QUIZ_COUNT = 3;
+    private static final int QUESTIONS_PER_QUIZ = 8;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private QuizService quizService;
+
+    @Autowired
+    private QuestionService questionService;
+
+    @Autowired
+    private QuizResultRepository quizResultRepository;
+
+    @MockBean
+    private AIService aiService;
+
+    @MockBean
+    private QuestionPoolService questionPoolService;
+
+    @MockBean
+    private QuizResponseCache quizResponseCache;
+
+    private Statistics statistics;
+    private List<Quiz> quizzes;
+
+    @BeforeEach
+    void setUp() {
+        quizzes = new ArrayList<>();
+        for (int q = 0; q < QUIZ_COUNT; q++) {
+            List<Question> questions = new ArrayList<>();
+            for (int i = 0; i < QUESTIONS_PER_QUIZ; i++) {
+                Question question = new Question("Question " + q + "-" + i, QuestionType.THEORY,
+                        List.of("A", "B", "C", "D"), "A", "Explanation", Set.of("Java", "Collections"), "JUNIOR");
+                entityManager.persist(question);
+                questions.add(question);
+            }
+            Quiz quiz = new Quiz("Quiz " + q, "Description", questions, new HashSet<>(Set.of("Java")), "JUNIOR", 30);
+            entityManager.persist(quiz);
+            quizzes.add(quiz);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void catalogue_shouldIssueSingleStatement() {
+        // When
+        QuizCataloguePage page = quizService.getCatalogue(null, 0, 20);
+
+        // Then
+        assertThat(page.getItems()).hasSize(QUIZ_COUNT);
+        assertThat(page.getItems().get(0).getQuestionCount()).isEqualTo(QUESTIONS_PER_QUIZ);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void quizDetail_shouldNotDependOnQuestionCount() {
+        // When
+        QuizResponse response = quizService.getQuizById(quizzes.get(0).getId());
+
+        // Then
+        assertThat(response.getQuestions()).hasSize(QUESTIONS_PER_QUIZ)
+                .allSatisfy(question -> assertThat(question.getOptions()).hasSize(4));
+        // тест, его теги и вопросы; варианты и теги вопросов приходят в той же строке
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+    }
+
+    @Test
+    void allQuizzes_shouldNotDependOnQuizCount() {
+        // When
+        List<QuizResponse> responses = quizService.getQuizzes();
+
+        // Then
+        assertThat(responses).hasSize(QUIZ_COUNT)
+                .allSatisfy(response -> assertThat(response.getQuestions()).hasSize(QUESTIONS_PER_QUIZ));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void adminQuestionList_shouldIssueSingleStatement() {
+        // When
+        List<Question> questions = questionService.getAllQuestions();
+
+        // Then
+        assertThat(questions).hasSize(QUIZ_COUNT * QUESTIONS_PER_QUIZ);
+        assertThat(questions).allSatisfy(question -> assertThat(question.getTags()).hasSize(2));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void quizResult_shouldNotLoadQuizGraph() {
+        // Given
+        QuizResult result = new QuizResult();
+        result.setQuiz(entityManager.getReference(Quiz.class, quizzes.get(0).getId()));
+        result.setScore(5);
+        result.setTotalQuestions(QUESTIONS_PER_QUIZ);
+        entityManager.persist(result);
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        // When
+        QuizResult loaded = quizResultRepository.findById(result.getId()).orElseThrow();
+
+        // Then
+        assertThat(loaded.getScore()).isEqualTo(5);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+}
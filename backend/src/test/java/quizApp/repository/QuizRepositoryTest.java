@@ -4,10 +4,14 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
 import quizApp.model.Question;
 import quizApp.model.QuestionType;
 import quizApp.model.Quiz;
+import quizApp.model.dto.QuizSummary;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
@@ -77,4 +81,54 @@ class QuizRepositoryTest {
         assertThat(quizzes).hasSize(1);
         assertThat(quizzes.get(0).getTitle()).isEqualTo("Test Quiz");
     }
-}
\ No newline at end of file
+
+    @Test
+    void whenFindSummaries_thenReturnProjectionNewestFirst() {
+        // Given
+        Question first = persistQuestion("First");
+        Question second = persistQuestion("Second");
+        Quiz older = persistQuiz("Older", List.of(first), Set.of("Java"));
+        Quiz newer = persistQuiz("Newer", List.of(first, second), Set.of("Streams", "Collections"));
+        entityManager.clear();
+
+        // When
+        List<QuizSummary> summaries = quizRepository.findSummaries(PageRequest.of(0, 10));
+
+        // Then
+        assertThat(summaries).extracting(QuizSummary::getId).containsExactly(newer.getId(), older.getId());
+        QuizSummary summary = summaries.get(0);
+        assertThat(summary.getTitle()).isEqualTo("Newer");
+        assertThat(summary.getQuestionCount()).isEqualTo(2);
+        assertThat(summary.getTags()).containsExactly("Collections", "Streams");
+        assertThat(summary.getCreatedAt()).isNotNull();
+    }
+
+    @Test
+    void whenFindSummariesBefore_thenReturnNextKeysetPage() {
+        // Given
+        Quiz first = persistQuiz("First", List.of(), Set.of());
+        Quiz second = persistQuiz("Second", List.of(), Set.of("Java"));
+        Quiz third = persistQuiz("Third", List.of(), Set.of("Java"));
+
+        // When
+        List<QuizSummary> page = quizRepository.findSummariesBefore(third.getId(), PageRequest.of(0, 10));
+
+        // Then
+        assertThat(page).extracting(QuizSummary::getTitle).containsExactly("Second", "First");
+        assertThat(page.get(1).getTags()).isEmpty();
+        assertThat(page.get(1).getQuestionCount()).isZero();
+    }
+
+    private Question persistQuestion(String text) {
+        Question question = new Question(text, QuestionType.THEORY, List.of("A", "B", "C", "D"), "A",
+                "Explanation", Set.of("Java"), "JUNIOR");
+        return entityManager.persist(question);
+    }
+
+    private Quiz persistQuiz(String title, List<Question> questions, Set<String> tags) {
+        Quiz quiz = new Quiz(title, "Description", new ArrayList<>(questions), new HashSet<>(tags), "JUNIOR", 30);
+        entityManager.persist(quiz);
+        entityManager.flush();
+        return quiz;
+    }
+}
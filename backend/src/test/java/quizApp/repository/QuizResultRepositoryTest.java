@@ -273,4 +273,43 @@ class QuizResultRepositoryTest {
         // Then
         assertThat(allResults).hasSize(3);
     }
-}
\ No newline at end of file
+
+    @Test
+    void whenReloaded_thenUserAnswersDecodedFromSingleColumn() {
+        // Given
+        entityManager.clear();
+
+        // When
+        QuizResult loaded = quizResultRepository.findById(result1.getId()).orElseThrow();
+
+        // Then
+        assertThat(loaded.getEncodedAnswers()).hasSize(loaded.getQuiz().getQuestions().size());
+        assertThat(loaded.getUserAnswers()).hasSize(result1.getUserAnswers().size());
+        result1.getUserAnswers().forEach((question, answer) -> assertThat(loaded.getUserAnswers())
+                .anySatisfy((loadedQuestion, loadedAnswer) -> {
+                    assertThat(loadedQuestion.getId()).isEqualTo(question.getId());
+                    assertThat(loadedAnswer).isEqualTo(answer);
+                }));
+    }
+
+    @Test
+    void whenAnswerIsNotSingleLetter_thenOriginalTextSurvivesReload() {
+        // Given
+        QuizResult result = new QuizResult();
+        result.setQuiz(quiz1);
+        result.setScore(0);
+        result.setTotalQuestions(1);
+        result.setUserAnswers(Map.of(question1, "ArrayList"));
+        entityManager.persist(result);
+        entityManager.flush();
+        entityManager.clear();
+
+        // When
+        QuizResult loaded = quizResultRepository.findById(result.getId()).orElseThrow();
+
+        // Then
+        assertThat(loaded.getEncodedAnswers()).contains("?");
+        assertThat(loaded.getUserAnswers()).hasSize(1)
+                .allSatisfy((question, answer) -> assertThat(answer).isEqualTo("ArrayList"));
+    }
+}
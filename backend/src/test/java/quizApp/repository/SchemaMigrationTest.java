@@ -0,0 +1,136 @@
+package quizApp.repository;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.configuration.FluentConfiguration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Обновление базы, созданной до перехода на миграции: схема версии 1 с данными,
+ * затем остальные миграции. Каждый тест работает со своей базой H2 в режиме MySQL.
+ */
+class SchemaMigrationTest {
+
+    private DriverManagerDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        flyway("1").migrate();
+    }
+
+    @Test
+    void idSequences_shouldStartAfterExistingIds() {
+        // Given
+        jdbcTemplate.update("INSERT INTO questions (id, text) VALUES (7, 'Legacy question')");
+        jdbcTemplate.update("INSERT INTO quizzes (id, title) VALUES (3, 'Legacy quiz')");
+
+        // When
+        flyway(null).migrate();
+
+        // Then: pooled-оптимизатор с шагом 50 выдаёт id начиная с next_val - 49
+        assertThat(jdbcTemplate.queryForObject("SELECT next_val FROM questions_seq", Long.class) - 49).isEqualTo(8);
+        assertThat(jdbcTemplate.queryForObject("SELECT next_val FROM quizzes_seq", Long.class) - 49).isEqualTo(4);
+    }
+
+    @Test
+    void questionJsonColumns_shouldReceiveLegacyOptionsAndTags() {
+        // Given
+        jdbcTemplate.update("INSERT INTO questions (id, text) VALUES (1, 'With options'), (2, 'Without options')");
+        jdbcTemplate.update("INSERT INTO question_options VALUES (1, 'Yes'), (1, 'No')");
+        jdbcTemplate.update("INSERT INTO question_tags VALUES (1, 'Java'), (1, 'OOP')");
+
+        // When
+        flyway(null).migrate();
+
+        // Then
+        assertThat(jdbcTemplate.queryForObject("SELECT CAST(options AS VARCHAR) FROM questions WHERE id = 1",
+                String.class)).isEqualTo("[\"Yes\",\"No\"]");
+        assertThat(jdbcTemplate.queryForObject("SELECT CAST(tags AS VARCHAR) FROM questions WHERE id = 1",
+                String.class)).contains("\"Java\"", "\"OOP\"");
+        assertThat(jdbcTemplate.queryForObject("SELECT options FROM questions WHERE id = 2", String.class)).isNull();
+        assertThat(tableExists("question_options")).isFalse();
+        assertThat(tableExists("question_tags")).isFalse();
+    }
+
+    @Test
+    void encodedAnswers_shouldKeepEveryLegacyAnswer() {
+        // Given
+        jdbcTemplate.update("INSERT INTO questions (id, text) VALUES (1, 'Q1'), (2, 'Q2'), (3, 'Q3'), (4, 'Removed')");
+        jdbcTemplate.update("INSERT INTO quizzes (id, title) VALUES (1, 'Quiz')");
+        jdbcTemplate.update("INSERT INTO quiz_questions (quiz_id, question_id) VALUES (1, 3), (1, 1), (1, 2)");
+        jdbcTemplate.update("INSERT INTO quiz_results (id, quiz_id, score) VALUES (10, 1, 1), (11, NULL, 0)");
+        jdbcTemplate.update("INSERT INTO user_answers (result_id, question_id, user_answer) VALUES "
+                + "(10, 1, 'A'), (10, 3, 'c'), (10, 4, 'B'), (11, 2, 'D')");
+
+        // When
+        flyway(null).migrate();
+
+        // Then
+        assertThat(jdbcTemplate.queryForList("SELECT encoded_answers FROM quiz_results ORDER BY id", String.class))
+                .containsExactly("A-?", null);
+        assertThat(jdbcTemplate.queryForList("SELECT CONCAT(result_id, ':', question_id, ':', answer) "
+                + "FROM quiz_result_raw_answers ORDER BY result_id, question_id", String.class))
+                .containsExactly("10:3:c", "10:4:B", "11:2:D");
+        assertThat(tableExists("user_answers")).isFalse();
+    }
+
+    @Test
+    void baselinedDatabase_shouldReceiveEveryLaterMigration() {
+        // Given: база из ddl-auto=update - та же схема, но без истории Flyway
+        jdbcTemplate.execute("DROP TABLE flyway_schema_history");
+        jdbcTemplate.update("INSERT INTO questions (id, text) VALUES (1, 'Bank question')");
+
+        // When
+        Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration/common")
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .load()
+                .migrate();
+
+        // Then
+        assertThat(jdbcTemplate.queryForObject("SELECT pooled FROM questions WHERE id = 1", Boolean.class)).isFalse();
+        assertThat(tableExists("questions_seq")).isTrue();
+        assertThat(tableExists("refresh_tokens")).isTrue();
+    }
+
+    @Test
+    void questionDifficulty_shouldBeNormalized() {
+        // Given
+        jdbcTemplate.update("INSERT INTO questions (id, text, difficulty) VALUES "
+                + "(1, 'Q1', 'Junior'), (2, 'Q2', ' middle ')");
+
+        // When
+        flyway(null).migrate();
+
+        // Then
+        assertThat(jdbcTemplate.queryForList("SELECT difficulty FROM questions ORDER BY id", String.class))
+                .containsExactly("JUNIOR", "MIDDLE");
+    }
+
+    private boolean tableExists(String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM information_schema.tables WHERE table_name = ?",
+                Integer.class, table) > 0;
+    }
+
+    private Flyway flyway(String target) {
+        FluentConfiguration configuration = Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration/common");
+        if (target != null) {
+            configuration.target(target);
+        }
+        return configuration.load();
+    }
+}
@@ -0,0 +1,45 @@
+package quizApp.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import quizApp.model.Question;
+import quizApp.model.QuestionType;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Схема из миграций должна совпадать с сущностями: как в приложении, Hibernate с диалектом MySQL
+ * проверяет её через ddl-auto=validate (H2 в режиме MySQL вместо MySQL).
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:validation;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.flyway.enabled=true",
+        "spring.flyway.locations=classpath:db/migration/common",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.database-platform=org.hibernate.dialect.MySQLDialect",
+        "quiz.cache.enabled=false"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class SchemaValidationTest {
+
+    @Autowired
+    private QuestionRepository questionRepository;
+
+    @Test
+    void migratedSchema_shouldMatchEntities() {
+        // Given
+        Question question = new Question("Migrated schema", QuestionType.THEORY, List.of("Yes", "No"), "A",
+                "Explanation", Set.of("Java"), "JUNIOR");
+
+        // When
+        Question saved = questionRepository.saveAndFlush(question);
+
+        // Then
+        assertThat(questionRepository.findById(saved.getId())).get()
+                .satisfies(loaded -> assertThat(loaded.getOptions()).containsExactly("Yes", "No"));
+    }
+}
@@ -0,0 +1,184 @@
+package quizApp.repository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import quizApp.config.JpaCacheConfig;
+import quizApp.model.Question;
+import quizApp.model.QuestionType;
+import quizApp.model.Quiz;
+import quizApp.model.dto.QuizResponse;
+import quizApp.service.AIService;
+import quizApp.service.QuestionPoolService;
+import quizApp.service.QuestionService;
+import quizApp.service.QuizResponseCache;
+import quizApp.service.QuizService;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Кэш второго уровня: повторное чтение теста без SQL и сброс записей при изменениях.
+ * Без общей транзакции теста - иначе кэш видел бы незакоммиченные вставки.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({JpaCacheConfig.class, QuizService.class, QuestionService.class, SecondLevelCacheTest.Metrics.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SecondLevelCacheTest {
+
+    @TestConfiguration
+    static class Metrics {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private QuizRepository quizRepository;
+
+    @Autowired
+    private QuestionRepository questionRepository;
+
+    @Autowired
+    private QuizService quizService;
+
+    @Autowired
+    private QuestionService questionService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @MockBean
+    private AIService aiService;
+
+    @MockBean
+    private QuestionPoolService questionPoolService;
+
+    @MockBean
+    private QuizResponseCache quizResponseCache;
+
+    private Statistics statistics;
+    private Quiz quiz;
+
+    @BeforeEach
+    void setUp() {
+        quiz = transactionTemplate.execute(status -> {
+            List<Question> questions = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                questions.add(new Question("Question " + i, QuestionType.THEORY, List.of("A", "B", "C", "D"), "A",
+                        "Explanation", Set.of("Java"), "JUNIOR"));
+            }
+            return quizRepository.save(new Quiz("Quiz", "Description", questionRepository.saveAll(questions),
+                    new HashSet<>(Set.of("Java")), "JUNIOR", 30));
+        });
+        entityManagerFactory.getCache().evictAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        quizRepository.deleteAll();
+        questionRepository.deleteAll();
+    }
+
+    @Test
+    void getQuizById_secondReadShouldBeServedFromCache() {
+        // Given
+        quizService.getQuizById(quiz.getId());
+        statistics.clear();
+
+        // When
+        QuizResponse response = quizService.getQuizById(quiz.getId());
+
+        // Then
+        assertThat(response.getQuestions()).hasSize(5)
+                .allSatisfy(question -> assertThat(question.getOptions()).containsExactly("A", "B", "C", "D"));
+        assertThat(response.getTags()).containsExactly("Java");
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(meterRegistry.get("jpa.cache.hit.ratio").tag("region", Quiz.class.getName()).gauge().value())
+                .isGreaterThan(0);
+    }
+
+    @Test
+    void updateQuestion_shouldReplaceCachedState() {
+        // Given
+        quizService.getQuizById(quiz.getId());
+        Long questionId = quiz.getQuestions().get(0).getId();
+        Question details = new Question("Updated", QuestionType.THEORY, new ArrayList<>(List.of("X", "Y")), "X",
+                "Updated explanation", new HashSet<>(Set.of("Streams")), "MIDDLE");
+
+        // When
+        questionService.updateQuestion(questionId, details);
+        QuizResponse response = quizService.getQuizById(quiz.getId());
+
+        // Then
+        assertThat(response.getQuestions())
+                .filteredOn(question -> question.getId().equals(questionId))
+                .singleElement()
+                .satisfies(question -> {
+                    assertThat(question.getText()).isEqualTo("Updated");
+                    assertThat(question.getOptions()).containsExactly("X", "Y");
+                    assertThat(question.getTags()).containsExactly("Streams");
+                });
+    }
+
+    @Test
+    void deleteQuizById_shouldEvictQuiz() {
+        // Given
+        quizService.getQuizById(quiz.getId());
+
+        // When
+        quizService.deleteQuizById(quiz.getId());
+
+        // Then
+        assertThatThrownBy(() -> quizService.getQuizById(quiz.getId()))
+                .hasMessageContaining("Quiz not found");
+    }
+
+    @Test
+    void tagLookup_shouldUseQueryCacheUntilQuestionsChange() {
+        // Given
+        questionService.getQuestionsByTag("Java");
+        statistics.clear();
+
+        // When
+        List<Question> cached = questionService.getQuestionsByTag("Java");
+        long cachedStatements = statistics.getPrepareStatementCount();
+        questionService.saveQuestion(new Question("New", QuestionType.THEORY, List.of("A", "B"), "A",
+                "Explanation", Set.of("Java"), "JUNIOR"));
+        List<Question> refreshed = questionService.getQuestionsByTag("Java");
+
+        // Then
+        assertThat(cached).hasSize(5);
+        assertThat(cachedStatements).isZero();
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+        assertThat(refreshed).hasSize(6);
+    }
+}
@@ -0,0 +1,138 @@
+package quizApp.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import quizApp.exception.AIUnavailableException;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AICircuitBreakerTest {
+
+    private AICircuitBreaker circuitBreaker;
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        circuitBreaker = new AICircuitBreaker();
+        ReflectionTestUtils.setField(circuitBreaker, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(circuitBreaker, "failureRateThreshold", 50);
+        ReflectionTestUtils.setField(circuitBreaker, "slidingWindowSize", 10);
+        ReflectionTestUtils.setField(circuitBreaker, "minimumCalls", 4);
+        ReflectionTestUtils.setField(circuitBreaker, "openDurationMs", 60_000L);
+        ReflectionTestUtils.setField(circuitBreaker, "halfOpenCalls", 1);
+        ReflectionTestUtils.setField(circuitBreaker, "bulkheadMaxWaitMs", 0L);
+        ReflectionTestUtils.setField(circuitBreaker, "callTimeoutMs", 1_000L);
+        ReflectionTestUtils.invokeMethod(circuitBreaker, "setMaxConcurrentCalls", 1);
+    }
+
+    @Test
+    void execute_whenFailureRateExceedsThreshold_shouldOpenAndShortCircuit() throws Exception {
+        // Given
+        circuitBreaker.execute(() -> "ok");
+        circuitBreaker.execute(() -> "ok");
+        failOnce();
+        failOnce();
+
+        // When & Then
+        assertThat(circuitBreaker.getState()).isEqualTo(AICircuitBreaker.State.OPEN);
+        assertThatThrownBy(() -> circuitBreaker.execute(() -> "never called"))
+                .isInstanceOf(AIUnavailableException.class)
+                .hasMessageContaining("open");
+        assertThat(meterRegistry.counter("ai.circuit.transitions", "from", "CLOSED", "to", "OPEN").count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void execute_afterOpenDuration_shouldCloseOnSuccessfulTrialCall() throws Exception {
+        // Given
+        ReflectionTestUtils.setField(circuitBreaker, "openDurationMs", 0L);
+        for (int i = 0; i < 4; i++) {
+            failOnce();
+        }
+        assertThat(circuitBreaker.getState()).isEqualTo(AICircuitBreaker.State.OPEN);
+
+        // When
+        String result = circuitBreaker.execute(() -> "recovered");
+
+        // Then
+        assertThat(result).isEqualTo("recovered");
+        assertThat(circuitBreaker.getState()).isEqualTo(AICircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void execute_whenTrialCallFails_shouldReopen() {
+        // Given
+        ReflectionTestUtils.setField(circuitBreaker, "openDurationMs", 0L);
+        for (int i = 0; i < 4; i++) {
+            failOnce();
+        }
+
+        // When
+        failOnce();
+
+        // Then
+        assertThat(circuitBreaker.getState()).isEqualTo(AICircuitBreaker.State.OPEN);
+        assertThat(meterRegistry.counter("ai.circuit.transitions", "from", "HALF_OPEN", "to", "OPEN").count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void execute_whenBulkheadIsFull_shouldRejectImmediately() throws Exception {
+        // Given
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> {
+            try {
+                return circuitBreaker.execute(() -> {
+                    started.countDown();
+                    release.await(5, TimeUnit.SECONDS);
+                    return "slow";
+                });
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // When & Then
+        assertThatThrownBy(() -> circuitBreaker.execute(() -> "second"))
+                .isInstanceOf(AIUnavailableException.class)
+                .hasMessageContaining("Too many concurrent AI calls");
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("slow");
+    }
+
+    @Test
+    void execute_whenCallExceedsDeadline_shouldFailWithTimeout() {
+        // Given
+        ReflectionTestUtils.setField(circuitBreaker, "callTimeoutMs", 50L);
+
+        // When & Then
+        assertThatThrownBy(() -> circuitBreaker.execute(() -> {
+            Thread.sleep(5_000);
+            return "late";
+        })).isInstanceOf(TimeoutException.class);
+        assertThat(meterRegistry.counter("ai.calls", "outcome", "failure").count()).isEqualTo(1.0);
+    }
+
+    private void failOnce() {
+        try {
+            circuitBreaker.execute(() -> {
+                throw new IOException("502 Bad Gateway");
+            });
+        } catch (Exception ignored) {
+            // ожидаемая ошибка
+        }
+    }
+}
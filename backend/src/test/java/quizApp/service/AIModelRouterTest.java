@@ -0,0 +1,109 @@
+package quizApp.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import quizApp.exception.AIUnavailableException;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AIModelRouterTest {
+
+    private AIModelRouter router;
+    private MeterRegistry meterRegistry;
+    private final List<String> calledModels = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        router = new AIModelRouter();
+        ReflectionTestUtils.setField(router, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(router, "hedgeAfterMs", 60_000L);
+        ReflectionTestUtils.setField(router, "maxAttempts", 3);
+        ReflectionTestUtils.setField(router, "windowSize", 10);
+        ReflectionTestUtils.setField(router, "minimumCalls", 3);
+        ReflectionTestUtils.setField(router, "maxErrorRate", 50);
+        ReflectionTestUtils.invokeMethod(router, "setModels", List.of("slow", "fast", "spare"));
+    }
+
+    @Test
+    void execute_whenFirstModelIsSlow_shouldHedgeAndPreferFasterModel() throws Exception {
+        // Given
+        ReflectionTestUtils.setField(router, "hedgeAfterMs", 50L);
+
+        // When
+        String result = router.execute(model -> {
+            calledModels.add(model);
+            if (model.equals("slow")) {
+                Thread.sleep(5_000);
+            }
+            return model;
+        });
+
+        // Then
+        assertThat(result).isEqualTo("fast");
+        assertThat(calledModels).containsExactly("slow", "fast");
+        assertThat(meterRegistry.counter("ai.model.hedges", "model", "fast").count()).isEqualTo(1.0);
+        assertThat(router.rankedModels()).startsWith("fast");
+    }
+
+    @Test
+    void execute_whenModelFails_shouldFallBackToNextModel() throws Exception {
+        // When
+        String result = router.execute(model -> {
+            calledModels.add(model);
+            if (model.equals("slow")) {
+                throw new IOException("502 Bad Gateway");
+            }
+            return model;
+        });
+
+        // Then
+        assertThat(result).isEqualTo("fast");
+        assertThat(calledModels).containsExactly("slow", "fast");
+        assertThat(meterRegistry.counter("ai.model.fallbacks", "model", "fast").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void rankedModels_whenModelKeepsFailing_shouldDemoteIt() {
+        // Given
+        for (int i = 0; i < 3; i++) {
+            router.recordOutcome("slow", false);
+        }
+
+        // When
+        List<String> ranked = router.rankedModels();
+
+        // Then
+        assertThat(ranked).containsExactly("fast", "spare", "slow");
+        assertThat(meterRegistry.get("ai.model.error.rate").tag("model", "slow").gauge().value()).isEqualTo(100.0);
+    }
+
+    @Test
+    void execute_whenCircuitIsOpen_shouldNotTryOtherModels() {
+        // When & Then
+        assertThatThrownBy(() -> router.execute(model -> {
+            calledModels.add(model);
+            throw new AIUnavailableException("AI circuit breaker is open");
+        })).isInstanceOf(AIUnavailableException.class);
+        assertThat(calledModels).containsExactly("slow");
+    }
+
+    @Test
+    void execute_whenAllModelsFail_shouldThrowLastError() {
+        // When & Then
+        assertThatThrownBy(() -> router.execute(model -> {
+            calledModels.add(model);
+            throw new IOException("failed " + model);
+        })).isInstanceOf(IOException.class)
+                .hasMessage("failed spare");
+        assertThat(calledModels).containsExactly("slow", "fast", "spare");
+    }
+}
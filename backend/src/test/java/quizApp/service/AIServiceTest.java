@@ -0,0 +1,250 @@
+package quizApp.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.ResourceAccessException;
+import quizApp.exception.AIUnavailableException;
+import quizApp.model.Question;
+import quizApp.repository.QuestionRepository;
+import quizApp.utils.AIHttpClient;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AIServiceTest {
+
+    private static final String AI_URL = "http://ai.test/chat/completions";
+
+    private static final String AI_RESPONSE = """
+            {"choices": [{"message": {"content": "{\\"questions\\": [{\\"text\\": \\"What is JVM?\\", \\"type\\": \\"THEORY\\", \\"options\\": [\\"A1\\", \\"B1\\", \\"C1\\", \\"D1\\"], \\"correctAnswer\\": \\"A\\", \\"tags\\": [\\"JVM\\"], \\"difficulty\\": \\"JUNIOR\\"}]}"}}]}
+            """;
+
+    @Mock
+    private AIHttpClient aiHttpClient;
+
+    @Mock
+    private QuestionRepository questionRepository;
+
+    @Mock
+    private AICircuitBreaker circuitBreaker;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+
+    @InjectMocks
+    private AIService aiService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        ReflectionTestUtils.setField(aiService, "apiUrl", AI_URL);
+        AIModelRouter modelRouter = new AIModelRouter();
+        ReflectionTestUtils.setField(modelRouter, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(modelRouter, "hedgeAfterMs", 60_000L);
+        ReflectionTestUtils.setField(modelRouter, "maxAttempts", 1);
+        ReflectionTestUtils.setField(modelRouter, "windowSize", 10);
+        ReflectionTestUtils.invokeMethod(modelRouter, "setModels", List.of("test-model"));
+        ReflectionTestUtils.setField(aiService, "modelRouter", modelRouter);
+        lenient().when(circuitBreaker.execute(any()))
+                .thenAnswer(invocation -> ((Callable<?>) invocation.getArgument(0)).call());
+    }
+
+    @Test
+    void requestQuizQuestions_shouldCoalesceConcurrentEquivalentRequests() throws Exception {
+        // Given
+        CountDownLatch callStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(aiHttpClient.post(eq(AI_URL), any(HttpHeaders.class), anyString()))
+                .thenAnswer(invocation -> {
+                    callStarted.countDown();
+                    release.await(5, TimeUnit.SECONDS);
+                    return AI_RESPONSE;
+                });
+
+        // When
+        CompletableFuture<List<Question>> leader = CompletableFuture.supplyAsync(() -> request("Java, OOP"));
+        assertThat(callStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<List<Question>> follower = CompletableFuture.supplyAsync(() -> request(" oop,java "));
+        awaitCoalesced(1);
+        release.countDown();
+
+        // Then
+        List<Question> leaderQuestions = leader.get(5, TimeUnit.SECONDS);
+        List<Question> followerQuestions = follower.get(5, TimeUnit.SECONDS);
+        assertThat(leaderQuestions).extracting(Question::getText).containsExactly("What is JVM?");
+        assertThat(followerQuestions).extracting(Question::getText).containsExactly("What is JVM?");
+        assertThat(followerQuestions.get(0)).isNotSameAs(leaderQuestions.get(0));
+        verify(aiHttpClient, times(1)).post(eq(AI_URL), any(HttpHeaders.class), anyString());
+    }
+
+    @Test
+    void requestQuizQuestions_withDifferentRequests_shouldCallAIForEach() throws Exception {
+        // Given
+        when(aiHttpClient.post(eq(AI_URL), any(HttpHeaders.class), anyString()))
+                .thenReturn(AI_RESPONSE);
+
+        // When
+        aiService.requestQuizQuestions("Java", "JUNIOR", 1);
+        aiService.requestQuizQuestions("Java", "MIDDLE", 1);
+
+        // Then
+        verify(aiHttpClient, times(2)).post(eq(AI_URL), any(HttpHeaders.class), anyString());
+        assertThat(meterRegistry.counter("ai.generation.requests", "mode", "coalesced").count()).isZero();
+    }
+
+    @Test
+    void requestQuizQuestions_whenAIUnavailable_shouldPropagateError() throws Exception {
+        // Given
+        when(aiHttpClient.post(eq(AI_URL), any(HttpHeaders.class), anyString()))
+                .thenThrow(new ResourceAccessException("Connection refused"));
+
+        // When & Then
+        assertThatThrownBy(() -> aiService.requestQuizQuestions("Java", "JUNIOR", 1))
+                .isInstanceOf(ResourceAccessException.class)
+                .hasMessageContaining("Connection refused");
+        assertThat(aiService.generateQuizQuestions("Java", "JUNIOR", 1)).hasSize(3);
+    }
+
+    @Test
+    void generateQuizQuestions_whenCircuitIsOpen_shouldAssembleFromQuestionBank() throws Exception {
+        // Given
+        doThrow(new AIUnavailableException("AI circuit breaker is open")).when(circuitBreaker).execute(any());
+        Question banked = new Question();
+        banked.setId(42L);
+        banked.setText("Banked question");
+        Question pooled = new Question();
+        pooled.setId(43L);
+        pooled.setPooled(true);
+        when(questionRepository.findByTagsInAndDifficulty(eq("Streams"), eq("JUNIOR"), any(Pageable.class)))
+                .thenReturn(List.of(banked, pooled));
+
+        // When
+        List<Question> questions = aiService.generateQuizQuestions("Streams", "JUNIOR", 5);
+
+        // Then
+        assertThat(questions).containsExactly(banked);
+        verifyNoInteractions(aiHttpClient);
+    }
+
+    @Test
+    void requestQuizQuestions_withLargeCount_shouldFanOutIntoParallelParts() throws Exception {
+        // Given
+        enableFanOut(2);
+        when(aiHttpClient.post(eq(AI_URL), any(HttpHeaders.class), anyString()))
+                .thenAnswer(invocation -> responseForPart(invocation.getArgument(2)));
+
+        // When
+        List<Question> questions = aiService.requestQuizQuestions("Collections, Streams", "JUNIOR", 5);
+
+        // Then
+        assertThat(questions).hasSize(5);
+        assertThat(questions).extracting(Question::getText).doesNotHaveDuplicates();
+        verify(aiHttpClient, times(3)).post(eq(AI_URL), any(HttpHeaders.class), anyString());
+    }
+
+    @Test
+    void requestQuizQuestions_whenSomePartsFail_shouldReturnPartialResult() throws Exception {
+        // Given
+        enableFanOut(2);
+        when(aiHttpClient.post(eq(AI_URL), any(HttpHeaders.class), anyString()))
+                .thenAnswer(invocation -> {
+                    String prompt = promptOf(invocation.getArgument(2));
+                    if (prompt.contains("часть 2 из")) {
+                        throw new ResourceAccessException("Read timed out");
+                    }
+                    return responseForPart(invocation.getArgument(2));
+                });
+
+        // When
+        List<Question> questions = aiService.requestQuizQuestions("Java", "JUNIOR", 6);
+
+        // Then
+        assertThat(questions).hasSize(4);
+        assertThat(meterRegistry.counter("ai.generation.fanout.parts", "outcome", "failure").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void requestQuizQuestions_whenPartsRepeatQuestions_shouldDeduplicate() throws Exception {
+        // Given
+        enableFanOut(1);
+        when(aiHttpClient.post(eq(AI_URL), any(HttpHeaders.class), anyString()))
+                .thenReturn(AI_RESPONSE);
+
+        // When
+        List<Question> questions = aiService.requestQuizQuestions("Java", "JUNIOR", 3);
+
+        // Then
+        assertThat(questions).extracting(Question::getText).containsExactly("What is JVM?");
+    }
+
+    private void enableFanOut(int chunkSize) {
+        ReflectionTestUtils.setField(aiService, "fanOutChunkSize", chunkSize);
+        ReflectionTestUtils.invokeMethod(aiService, "setFanOutMaxConcurrency", 4);
+    }
+
+    private String promptOf(String requestBody) throws Exception {
+        return objectMapper.readTree(requestBody).path("messages").path(0).path("content").asText();
+    }
+
+    private String responseForPart(String requestBody) throws Exception {
+        Matcher matcher = Pattern.compile("часть (\\d+) из").matcher(promptOf(requestBody));
+        String part = matcher.find() ? matcher.group(1) : "0";
+        Matcher count = Pattern.compile("из (\\d+) вопросов").matcher(promptOf(requestBody));
+        int questionCount = count.find() ? Integer.parseInt(count.group(1)) : 1;
+
+        List<Map<String, Object>> questions = new ArrayList<>();
+        for (int i = 0; i < questionCount; i++) {
+            questions.add(Map.of("text", "Part " + part + " question " + i, "options", List.of("A", "B", "C", "D"),
+                    "correctAnswer", "A"));
+        }
+        String content = objectMapper.writeValueAsString(Map.of("questions", questions));
+        return objectMapper.writeValueAsString(Map.of("choices", List.of(Map.of("message", Map.of("content", content)))));
+    }
+
+    private List<Question> request(String topics) {
+        try {
+            return aiService.requestQuizQuestions(topics, "JUNIOR", 1);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void awaitCoalesced(int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (meterRegistry.counter("ai.generation.requests", "mode", "coalesced").count() < expected
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+}
@@ -32,6 +32,15 @@ class AdminServiceTest {
     @Mock
     private UserMapper userMapper;
 
+    @Mock
+    private PrincipalCache principalCache;
+
+    @Mock
+    private TokenVersionTable tokenVersions;
+
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
     @InjectMocks
     private AdminService adminService;
 
@@ -149,9 +158,12 @@ class AdminServiceTest {
         verify(userRepository).findById(1L);
         verify(userRepository).save(user);
         verify(userMapper).toDTO(updatedUser);
+        verify(principalCache).evictAfterCommit("test@example.com");
+        verify(tokenVersions).markChangedAfterCommit(1L, 1);
 
         // Verify that user role was updated
         assertThat(user.getRole()).isEqualTo(Role.ROLE_ADMIN);
+        assertThat(user.getTokenVersion()).isEqualTo(1);
     }
 
     @Test
@@ -289,6 +301,9 @@ class AdminServiceTest {
         // Then
         verify(userRepository).findById(1L);
         verify(userRepository).delete(user);
+        verify(principalCache).evictAfterCommit("test@example.com");
+        verify(tokenVersions).markDeletedAfterCommit(1L);
+        verify(refreshTokenService).deleteAllForUser(1L);
     }
 
     @Test
@@ -49,6 +49,9 @@ class AuthServiceTest {
     @Mock
     private Authentication authentication;
 
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
     @InjectMocks
     private AuthService authService;
 
@@ -87,8 +90,6 @@ class AuthServiceTest {
         when(passwordEncoder.encode(anyString())).thenReturn("encodedPassword");
         when(userMapper.toEntity(anyString(), anyString(), anyString())).thenReturn(sampleUser);
         when(userRepository.save(any(User.class))).thenReturn(sampleUser);
-        when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
-                .thenReturn(authentication);
         when(jwtUtils.generateJwtToken(any(Authentication.class))).thenReturn("jwt-token");
         when(userMapper.toDTO(any(User.class))).thenReturn(sampleUserDTO);
 
@@ -103,8 +104,10 @@ class AuthServiceTest {
         verify(userRepository).existsByEmail("quiz@example.com");
         verify(userRepository).existsByUsername("quizuser");
         verify(userRepository).save(sampleUser);
-        verify(authenticationManager).authenticate(any(UsernamePasswordAuthenticationToken.class));
-        verify(jwtUtils).generateJwtToken(authentication);
+        // пароль не проверяется второй раз: токен выдаётся по только что сохранённому пользователю
+        verify(authenticationManager, never()).authenticate(any(Authentication.class));
+        verify(jwtUtils).generateJwtToken(argThat(auth -> auth.isAuthenticated()
+                && ((UserPrincipal) auth.getPrincipal()).getId().equals(1L)));
     }
 
     @Test
@@ -157,6 +160,59 @@ class AuthServiceTest {
         verify(userMapper).toDTO(sampleUser);
     }
 
+    @Test
+    void loginAndRegister_shouldIssueRefreshToken() {
+        // Given
+        when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
+                .thenReturn(authentication);
+        when(jwtUtils.generateJwtToken(any(Authentication.class))).thenReturn("jwt-token");
+        when(userRepository.findByEmail(anyString())).thenReturn(Optional.of(sampleUser));
+        when(userRepository.save(any(User.class))).thenReturn(sampleUser);
+        when(passwordEncoder.encode(anyString())).thenReturn("encodedPassword");
+        when(userMapper.toEntity(anyString(), anyString(), anyString())).thenReturn(sampleUser);
+        when(refreshTokenService.issue(sampleUser)).thenReturn("refresh-1", "refresh-2");
+
+        // When
+        AuthResponse loggedIn = authService.login(loginRequest);
+        AuthResponse registered = authService.register(registerRequest);
+
+        // Then
+        assertThat(loggedIn.getRefreshToken()).isEqualTo("refresh-1");
+        assertThat(registered.getRefreshToken()).isEqualTo("refresh-2");
+    }
+
+    @Test
+    void refresh_shouldRotateTokenAndIssueAccessTokenFromCurrentUser() {
+        // Given
+        sampleUser.setRole(Role.ROLE_ADMIN);
+        sampleUser.setTokenVersion(3);
+        when(refreshTokenService.rotate("refresh-1"))
+                .thenReturn(new RefreshTokenService.Rotation(sampleUser, "refresh-2"));
+        when(jwtUtils.generateJwtToken(any(Authentication.class))).thenReturn("jwt-token");
+        when(userMapper.toDTO(sampleUser)).thenReturn(sampleUserDTO);
+
+        // When
+        AuthResponse result = authService.refresh("refresh-1");
+
+        // Then
+        assertThat(result.getToken()).isEqualTo("jwt-token");
+        assertThat(result.getRefreshToken()).isEqualTo("refresh-2");
+        verify(jwtUtils).generateJwtToken(argThat(auth -> {
+            UserPrincipal principal = (UserPrincipal) auth.getPrincipal();
+            return principal.getRole() == Role.ROLE_ADMIN && principal.getTokenVersion() == 3;
+        }));
+        verify(authenticationManager, never()).authenticate(any(Authentication.class));
+    }
+
+    @Test
+    void logout_shouldRevokeRefreshToken() {
+        // When
+        authService.logout("refresh-1");
+
+        // Then
+        verify(refreshTokenService).revoke("refresh-1");
+    }
+
     @Test
     void login_withInvalidCredentials_shouldThrowException() {
         // Given
@@ -196,8 +252,6 @@ class AuthServiceTest {
         when(passwordEncoder.encode("password")).thenReturn("encodedPassword");
         when(userMapper.toEntity(anyString(), anyString(), anyString())).thenReturn(sampleUser);
         when(userRepository.save(any(User.class))).thenReturn(sampleUser);
-        when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
-                .thenReturn(authentication);
         when(jwtUtils.generateJwtToken(any(Authentication.class))).thenReturn("jwt-token");
         when(userMapper.toDTO(any(User.class))).thenReturn(sampleUserDTO);
 
@@ -0,0 +1,102 @@
+package quizApp.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import quizApp.model.Role;
+import quizApp.model.User;
+import quizApp.model.dto.UserPrincipal;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PrincipalCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger loads = new AtomicInteger();
+    private PrincipalCache cache;
+    private Role role;
+
+    @BeforeEach
+    void setUp() {
+        cache = new PrincipalCache();
+        ReflectionTestUtils.setField(cache, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(cache, "maxSize", 100L);
+        ReflectionTestUtils.setField(cache, "ttlSeconds", 60L);
+        cache.init();
+        role = Role.ROLE_USER;
+    }
+
+    @Test
+    void get_shouldLoadOnceAndExportHitsAndMisses() {
+        // When
+        UserDetails first = cache.get("user@example.com", this::load);
+        UserDetails second = cache.get("user@example.com", this::load);
+
+        // Then
+        assertThat(loads).hasValue(1);
+        assertThat(second).isSameAs(first);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "auth.principals").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "auth.principals").tag("result", "miss")
+                .functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void evictAfterCommit_shouldReloadChangedRole() {
+        // Given
+        cache.get("user@example.com", this::load);
+        role = Role.ROLE_ADMIN;
+
+        // When
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.evictAfterCommit("user@example.com");
+            // чтение до коммита ещё видит старую роль
+            role = Role.ROLE_USER;
+            cache.get("user@example.com", this::load);
+            role = Role.ROLE_ADMIN;
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        UserDetails reloaded = cache.get("user@example.com", this::load);
+
+        // Then
+        assertThat(loads).hasValue(3);
+        assertThat(((UserPrincipal) reloaded).getRole()).isEqualTo(Role.ROLE_ADMIN);
+    }
+
+    @Test
+    void get_shouldNotCacheMissingUser() {
+        // Given
+        Function<String, UserDetails> missing = email -> {
+            loads.incrementAndGet();
+            throw new UsernameNotFoundException("User Not Found with email: " + email);
+        };
+
+        // When & Then
+        assertThatThrownBy(() -> cache.get("gone@example.com", missing)).isInstanceOf(UsernameNotFoundException.class);
+        assertThatThrownBy(() -> cache.get("gone@example.com", missing)).isInstanceOf(UsernameNotFoundException.class);
+        assertThat(loads).hasValue(2);
+    }
+
+    private UserDetails load(String email) {
+        loads.incrementAndGet();
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("user");
+        user.setEmail(email);
+        user.setPassword("hash");
+        user.setRole(role);
+        return UserPrincipal.build(user);
+    }
+}
@@ -0,0 +1,162 @@
+package quizApp.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import quizApp.model.Question;
+import quizApp.repository.QuestionRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class QuestionPoolServiceTest {
+
+    @Mock
+    private QuestionRepository questionRepository;
+
+    @Mock
+    private AIService aiService;
+
+    @Spy
+    private TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private TaskExecutor refillExecutor = new SyncTaskExecutor();
+
+    @InjectMocks
+    private QuestionPoolService questionPoolService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(questionPoolService, "enabled", true);
+        ReflectionTestUtils.setField(questionPoolService, "targetDepth", 10);
+        ReflectionTestUtils.setField(questionPoolService, "refillBatchSize", 5);
+        ReflectionTestUtils.setField(questionPoolService, "maxBuckets", 50);
+        ReflectionTestUtils.setField(questionPoolService, "refillBudgetPerHour", 60);
+        ReflectionTestUtils.setField(questionPoolService, "configuredBuckets", List.of());
+    }
+
+    @Test
+    void take_shouldClaimQuestionsFromEveryRequestedBucket() {
+        // Given
+        when(questionRepository.findPooledForUpdate(eq("collections"), eq("JUNIOR"), any(Pageable.class)))
+                .thenReturn(pooledQuestions(2));
+        when(questionRepository.findPooledForUpdate(eq("streams"), eq("JUNIOR"), any(Pageable.class)))
+                .thenReturn(pooledQuestions(2));
+
+        // When
+        List<Question> taken = questionPoolService.take(List.of("Collections", " Streams"), "junior", 4);
+
+        // Then
+        assertThat(taken).hasSize(4);
+        assertThat(taken).allMatch(question -> !question.getPooled());
+        assertThat(meterRegistry.counter("quiz.pool.requests", "outcome", "hit").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void take_whenBucketIsEmpty_shouldReturnWhatIsAvailable() {
+        // Given
+        when(questionRepository.findPooledForUpdate(eq("java"), eq("MIDDLE"), any(Pageable.class)))
+                .thenReturn(pooledQuestions(1), List.of());
+
+        // When
+        List<Question> taken = questionPoolService.take(List.of("Java"), "MIDDLE", 3);
+
+        // Then
+        assertThat(taken).hasSize(1);
+        assertThat(meterRegistry.counter("quiz.pool.requests", "outcome", "partial").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void take_whenPoolDisabled_shouldNotTouchRepository() {
+        // Given
+        ReflectionTestUtils.setField(questionPoolService, "enabled", false);
+
+        // When
+        List<Question> taken = questionPoolService.take(List.of("Java"), "JUNIOR", 3);
+
+        // Then
+        assertThat(taken).isEmpty();
+        verifyNoInteractions(questionRepository);
+    }
+
+    @Test
+    void refill_shouldTopUpRequestedBucketWithPooledQuestions() throws Exception {
+        // Given
+        questionPoolService.take(List.of("Java"), "JUNIOR", 1);
+        when(questionRepository.countByPooledTrueAndPoolTagAndDifficulty("java", "JUNIOR")).thenReturn(7L);
+        List<Question> generated = new ArrayList<>(List.of(new Question(), new Question(), new Question()));
+        when(aiService.requestQuizQuestions("java", "JUNIOR", 3)).thenReturn(generated);
+
+        // When
+        questionPoolService.refill();
+
+        // Then
+        verify(questionRepository).saveAll(generated);
+        assertThat(generated).allMatch(question -> question.getPooled() && "java".equals(question.getPoolTag()));
+        assertThat(meterRegistry.get("quiz.pool.depth").tag("tag", "java").gauge().value()).isEqualTo(10.0);
+    }
+
+    @Test
+    void refill_whenAIFails_shouldNotSaveAnything() throws Exception {
+        // Given
+        questionPoolService.take(List.of("Java"), "JUNIOR", 1);
+        when(questionRepository.countByPooledTrueAndPoolTagAndDifficulty("java", "JUNIOR")).thenReturn(0L);
+        when(aiService.requestQuizQuestions(anyString(), anyString(), anyInt())).thenThrow(new Exception("timeout"));
+
+        // When
+        questionPoolService.refill();
+
+        // Then
+        verify(questionRepository, never()).saveAll(anyList());
+        assertThat(meterRegistry.get("quiz.pool.refill.duration").tag("outcome", "failure").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void refill_whenBudgetIsSpent_shouldSkipAICalls() throws Exception {
+        // Given
+        ReflectionTestUtils.setField(questionPoolService, "refillBudgetPerHour", 0);
+        questionPoolService.take(List.of("Java"), "JUNIOR", 1);
+        when(questionRepository.countByPooledTrueAndPoolTagAndDifficulty("java", "JUNIOR")).thenReturn(0L);
+
+        // When
+        questionPoolService.refill();
+
+        // Then
+        verify(aiService, never()).requestQuizQuestions(anyString(), anyString(), anyInt());
+    }
+
+    private List<Question> pooledQuestions(int count) {
+        List<Question> questions = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Question question = new Question();
+            question.setText("Pooled " + i);
+            question.setTags(Set.of("Java"));
+            question.setPooled(true);
+            questions.add(question);
+        }
+        return questions;
+    }
+}
@@ -0,0 +1,99 @@
+package quizApp.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import quizApp.model.Question;
+import quizApp.model.dto.QuestionPage;
+import quizApp.repository.QuestionRepository;
+import quizApp.repository.QuizRepository;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class QuestionServiceTest {
+
+    @Mock
+    private QuestionRepository questionRepository;
+
+    @Mock
+    private QuizRepository quizRepository;
+
+    @Mock
+    private QuizResponseCache quizResponseCache;
+
+    @InjectMocks
+    private QuestionService questionService;
+
+    @Test
+    void getQuestionsCountByDifficulty_shouldCountInDatabase() {
+        // Given
+        when(questionRepository.countByDifficultyAndPooledFalse("JUNIOR")).thenReturn(42L);
+
+        // When
+        long count = questionService.getQuestionsCountByDifficulty(" junior ");
+
+        // Then
+        assertThat(count).isEqualTo(42);
+        verify(questionRepository, never()).findAll();
+    }
+
+    @Test
+    void getQuestionsByDifficulty_shouldRequestOnePageOrderedById() {
+        // Given
+        Question question = new Question();
+        Pageable expected = PageRequest.of(1, 2);
+        when(questionRepository.findByDifficultyAndPooledFalse(eq("MIDDLE"), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(question, question), expected, 5));
+
+        // When
+        QuestionPage page = questionService.getQuestionsByDifficulty("middle", 1, 2);
+
+        // Then
+        assertThat(page.getItems()).hasSize(2);
+        assertThat(page.getTotalElements()).isEqualTo(5);
+        assertThat(page.isHasNext()).isTrue();
+        verify(questionRepository).findByDifficultyAndPooledFalse(eq("MIDDLE"), argThat(pageable ->
+                pageable.getPageNumber() == 1 && pageable.getPageSize() == 2
+                        && pageable.getSort().getOrderFor("id") != null));
+    }
+
+    @Test
+    void getQuestionsByTag_shouldRejectOversizedPage() {
+        // When / Then
+        assertThatThrownBy(() -> questionService.getQuestionsByTag("Java", 0, 101))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void getTagDifficultyMatrix_shouldNestPerTagCounts() {
+        // Given
+        when(questionRepository.countPerTagAndDifficulty()).thenReturn(List.of(
+                new Object[]{"Java", "JUNIOR", 5L},
+                new Object[]{"Streams", "JUNIOR", 3L},
+                new Object[]{"Java", "middle", 1L}));
+
+        // When
+        Map<String, Map<String, Long>> matrix = questionService.getTagDifficultyMatrix();
+
+        // Then
+        assertThat(matrix).containsOnlyKeys("Java", "Streams");
+        assertThat(matrix.get("Java")).containsExactly(Map.entry("JUNIOR", 5L), Map.entry("MIDDLE", 1L));
+        assertThat(matrix.get("Streams")).containsExactly(Map.entry("JUNIOR", 3L));
+    }
+}
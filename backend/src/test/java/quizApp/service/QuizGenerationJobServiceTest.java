@@ -0,0 +1,155 @@
+package quizApp.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.test.util.ReflectionTestUtils;
+import quizApp.exception.ResourceNotFoundException;
+import quizApp.exception.ServiceUnavailableException;
+import quizApp.model.GenerationJobStatus;
+import quizApp.model.Quiz;
+import quizApp.model.dto.GenerationJobResponse;
+import quizApp.model.dto.QuizRequest;
+import quizApp.model.dto.QuizResponse;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class QuizGenerationJobServiceTest {
+
+    private static final String OWNER = "alice";
+
+    @Mock
+    private QuizService quizService;
+
+    @Spy
+    private TaskExecutor quizGenerationExecutor = new SyncTaskExecutor();
+
+    @InjectMocks
+    private QuizGenerationJobService jobService;
+
+    private QuizRequest quizRequest;
+    private Quiz quiz;
+    private QuizResponse quizResponse;
+
+    @BeforeEach
+    void setUp() {
+        quizRequest = new QuizRequest(Arrays.asList("Java", "OOP"), "JUNIOR", 3);
+
+        quiz = new Quiz();
+        quiz.setId(1L);
+
+        quizResponse = new QuizResponse();
+        quizResponse.setId(1L);
+
+        ReflectionTestUtils.setField(jobService, "jobRetentionMinutes", 30L);
+        ReflectionTestUtils.setField(jobService, "retryAfterSeconds", 10L);
+    }
+
+    @Test
+    void submit_shouldRunJobAndExposeGeneratedQuiz() {
+        // Given
+        when(quizService.generateQuiz(quizRequest)).thenReturn(quiz);
+        when(quizService.convertToDTO(quiz)).thenReturn(quizResponse);
+
+        // When
+        GenerationJobResponse submitted = jobService.submit(quizRequest, OWNER);
+        GenerationJobResponse job = jobService.getJob(submitted.getJobId(), OWNER);
+
+        // Then
+        assertThat(job.getStatus()).isEqualTo(GenerationJobStatus.COMPLETED);
+        assertThat(job.isFinished()).isTrue();
+        assertThat(job.getQuiz().getId()).isEqualTo(1L);
+        assertThat(job.getFinishedAt()).isNotNull();
+        verify(quizService).validateRequest(quizRequest);
+    }
+
+    @Test
+    void submit_whenGenerationFails_shouldMarkJobFailed() {
+        // Given
+        when(quizService.generateQuiz(quizRequest)).thenThrow(new RuntimeException("AI is down"));
+
+        // When
+        GenerationJobResponse submitted = jobService.submit(quizRequest, OWNER);
+        GenerationJobResponse job = jobService.getJob(submitted.getJobId(), OWNER);
+
+        // Then
+        assertThat(job.getStatus()).isEqualTo(GenerationJobStatus.FAILED);
+        assertThat(job.getError()).isEqualTo("AI is down");
+        assertThat(job.getQuiz()).isNull();
+    }
+
+    @Test
+    void submit_whenExecutorIsSaturated_shouldThrowServiceUnavailable() {
+        // Given
+        TaskExecutor saturated = mock(TaskExecutor.class);
+        doThrow(new TaskRejectedException("queue full")).when(saturated).execute(any(Runnable.class));
+        ReflectionTestUtils.setField(jobService, "quizGenerationExecutor", saturated);
+
+        // When & Then
+        assertThatThrownBy(() -> jobService.submit(quizRequest, OWNER))
+                .isInstanceOf(ServiceUnavailableException.class)
+                .hasMessageContaining("Too many quiz generations");
+        verify(quizService, never()).generateQuiz(any());
+    }
+
+    @Test
+    void submit_withInvalidRequest_shouldNotScheduleJob() {
+        // Given
+        doThrow(new IllegalArgumentException("Tags list cannot be empty"))
+                .when(quizService).validateRequest(quizRequest);
+
+        // When & Then
+        assertThatThrownBy(() -> jobService.submit(quizRequest, OWNER))
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(quizGenerationExecutor, never()).execute(any(Runnable.class));
+    }
+
+    @Test
+    void awaitJob_shouldCompleteWithFinishedJob() throws Exception {
+        // Given
+        when(quizService.generateQuiz(quizRequest)).thenReturn(quiz);
+        when(quizService.convertToDTO(quiz)).thenReturn(quizResponse);
+        GenerationJobResponse submitted = jobService.submit(quizRequest, OWNER);
+
+        // When
+        GenerationJobResponse job = jobService.awaitJob(submitted.getJobId(), OWNER).get();
+
+        // Then
+        assertThat(job.getStatus()).isEqualTo(GenerationJobStatus.COMPLETED);
+    }
+
+    @Test
+    void getJob_whenJobUnknown_shouldThrowException() {
+        assertThatThrownBy(() -> jobService.getJob("missing", OWNER))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessageContaining("Generation job not found");
+    }
+
+    @Test
+    void getJob_whenRequestedByAnotherUser_shouldThrowException() {
+        // Given
+        when(quizService.generateQuiz(quizRequest)).thenReturn(quiz);
+        when(quizService.convertToDTO(quiz)).thenReturn(quizResponse);
+        String jobId = jobService.submit(quizRequest, OWNER).getJobId();
+
+        // When & Then
+        assertThatThrownBy(() -> jobService.getJob(jobId, "mallory"))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessageContaining("Generation job not found");
+        assertThatThrownBy(() -> jobService.awaitJob(jobId, "mallory"))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+}
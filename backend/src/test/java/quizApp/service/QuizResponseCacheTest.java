@@ -0,0 +1,113 @@
+package quizApp.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import quizApp.model.dto.QuestionDTO;
+import quizApp.model.dto.QuizResponse;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QuizResponseCacheTest {
+
+    private QuizResponseCache cache;
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        cache = new QuizResponseCache();
+        ReflectionTestUtils.setField(cache, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(cache, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(cache, "maxBytes", 1_000_000L);
+        ReflectionTestUtils.setField(cache, "ttlMinutes", 60L);
+        ReflectionTestUtils.setField(cache, "gzipMinBytes", 256);
+        cache.init();
+    }
+
+    @Test
+    void get_shouldSerializeOnceAndReuseBytes() {
+        // Given
+        Supplier<QuizResponse> loader = () -> quiz(1L, "Quiz", 10);
+
+        // When
+        QuizResponseCache.CachedQuiz first = cache.get(1L, loader);
+        QuizResponseCache.CachedQuiz second = cache.get(1L, loader);
+
+        // Then
+        assertThat(loads).hasValue(1);
+        assertThat(second).isSameAs(first);
+        assertThat(new String(first.json())).contains("\"title\":\"Quiz\"");
+    }
+
+    @Test
+    void get_shouldPrecompressLargeResponses() throws Exception {
+        // When
+        QuizResponseCache.CachedQuiz large = cache.get(1L, () -> quiz(1L, "Large", 20));
+        QuizResponseCache.CachedQuiz small = cache.get(2L, () -> quiz(2L, "Small", 0));
+
+        // Then
+        assertThat(large.hasGzip()).isTrue();
+        assertThat(large.gzip().length).isLessThan(large.json().length);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(large.gzip()))) {
+            assertThat(in.readAllBytes()).isEqualTo(large.json());
+        }
+        assertThat(small.hasGzip()).isFalse();
+    }
+
+    @Test
+    void matches_shouldAcceptBothRepresentationsAndWeakComparison() {
+        // Given
+        QuizResponseCache.CachedQuiz cached = cache.get(1L, () -> quiz(1L, "Quiz", 10));
+
+        // Then
+        assertThat(cached.etag()).startsWith("\"").endsWith("\"");
+        assertThat(cached.matches(cached.etag())).isTrue();
+        assertThat(cached.matches(cached.gzipEtag())).isTrue();
+        assertThat(cached.matches("\"other\", W/" + cached.etag())).isTrue();
+        assertThat(cached.matches("*")).isTrue();
+        assertThat(cached.matches("\"other\"")).isFalse();
+        assertThat(cached.matches(null)).isFalse();
+    }
+
+    @Test
+    void evict_shouldProduceNewEtagForChangedContent() {
+        // Given
+        QuizResponseCache.CachedQuiz before = cache.get(1L, () -> quiz(1L, "Before", 10));
+
+        // When
+        cache.evictAfterCommit(1L);
+        QuizResponseCache.CachedQuiz after = cache.get(1L, () -> quiz(1L, "After", 10));
+
+        // Then
+        assertThat(loads).hasValue(2);
+        assertThat(after.etag()).isNotEqualTo(before.etag());
+        assertThat(after.matches(before.etag())).isFalse();
+    }
+
+    private QuizResponse quiz(Long id, String title, int questionCount) {
+        loads.incrementAndGet();
+        List<QuestionDTO> questions = new ArrayList<>();
+        for (int i = 0; i < questionCount; i++) {
+            QuestionDTO question = new QuestionDTO();
+            question.setId((long) i);
+            question.setText("Question " + i + " about Java collections");
+            question.setOptions(List.of("A", "B", "C", "D"));
+            question.setCorrectAnswer("A");
+            question.setExplanation("Explanation " + i);
+            question.setTags(Set.of("Java"));
+            question.setDifficulty("JUNIOR");
+            questions.add(question);
+        }
+        return new QuizResponse(id, title, "Description", questions, Set.of("Java"), "JUNIOR", 30);
+    }
+}
@@ -7,27 +7,38 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import quizApp.model.Question;
 import quizApp.model.Quiz;
 
 import quizApp.model.QuizResult;
 import quizApp.model.dto.QuestionDTO;
+import quizApp.model.dto.QuizCataloguePage;
 import quizApp.model.dto.QuizRequest;
 import quizApp.model.dto.QuizResponse;
+import quizApp.model.dto.QuizSummary;
 import quizApp.repository.QuestionRepository;
 import quizApp.repository.QuizRepository;
 import quizApp.repository.QuizResultRepository;
 import quizApp.service.AIService;
 import quizApp.service.QuizService;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 
 import java.util.*;
+import java.util.function.Consumer;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -45,6 +56,15 @@ class QuizServiceTest {
     @Mock
     private AIService aiService;
 
+    @Mock
+    private QuestionPoolService questionPoolService;
+
+    @Mock
+    private QuizResponseCache quizResponseCache;
+
+    @Spy
+    private TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+
     @InjectMocks
     private QuizService quizService;
 
@@ -107,6 +127,39 @@ class QuizServiceTest {
         verify(quizRepository).save(any(Quiz.class));
     }
 
+    @Test
+    void generateQuiz_whenPoolHasEnoughQuestions_shouldSkipAI() {
+        // Given
+        when(questionPoolService.take(quizRequest.getTags(), "JUNIOR", 3)).thenReturn(sampleQuestions);
+        when(quizRepository.save(any(Quiz.class))).thenReturn(sampleQuiz);
+
+        // When
+        Quiz result = quizService.generateQuiz(quizRequest);
+
+        // Then
+        assertThat(result).isSameAs(sampleQuiz);
+        verify(aiService, never()).generateQuizQuestions(anyString(), anyString(), anyInt());
+        verify(questionRepository, never()).saveAll(anyList());
+        verify(quizRepository).save(argThat(quiz -> quiz.getQuestions().equals(sampleQuestions)));
+    }
+
+    @Test
+    void generateQuiz_whenPoolIsPartial_shouldGenerateOnlyMissingQuestions() {
+        // Given
+        when(questionPoolService.take(quizRequest.getTags(), "JUNIOR", 3))
+                .thenReturn(List.of(sampleQuestions.get(0)));
+        List<Question> generated = sampleQuestions.subList(1, 3);
+        when(aiService.generateQuizQuestions("Java, OOP", "JUNIOR", 2)).thenReturn(generated);
+        when(questionRepository.saveAll(generated)).thenReturn(generated);
+        when(quizRepository.save(any(Quiz.class))).thenReturn(sampleQuiz);
+
+        // When
+        quizService.generateQuiz(quizRequest);
+
+        // Then
+        verify(quizRepository).save(argThat(quiz -> quiz.getQuestions().size() == 3));
+    }
+
     @Test
     void generateQuiz_whenAIServiceFails_shouldUseFallbackQuestions() {
         // Given
@@ -126,6 +179,32 @@ class QuizServiceTest {
         verify(questionRepository, atLeastOnce()).saveAll(anyList());
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    void generateQuizStreaming_shouldPushQuestionsAndSaveInBatches() {
+        // Given
+        ReflectionTestUtils.setField(quizService, "streamBatchSize", 2);
+        when(aiService.streamQuizQuestions(anyString(), anyString(), anyInt(), any(Consumer.class)))
+                .thenAnswer(invocation -> {
+                    Consumer<Question> onQuestion = invocation.getArgument(3);
+                    sampleQuestions.forEach(onQuestion);
+                    return sampleQuestions;
+                });
+        when(questionRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(quizRepository.save(any(Quiz.class))).thenReturn(sampleQuiz);
+        List<QuestionDTO> pushed = new ArrayList<>();
+
+        // When
+        Quiz result = quizService.generateQuizStreaming(quizRequest, pushed::add);
+
+        // Then
+        assertThat(result).isSameAs(sampleQuiz);
+        assertThat(pushed).extracting(QuestionDTO::getText)
+                .containsExactly("Question 1", "Question 2", "Question 3");
+        verify(questionRepository, times(2)).saveAll(anyList());
+        verify(quizRepository).save(argThat(quiz -> quiz.getQuestions().size() == 3));
+    }
+
     @Test
     void generateQuiz_withEmptyTags_shouldThrowException() {
         // Given
@@ -137,6 +216,18 @@ class QuizServiceTest {
                 .hasMessageContaining("Tags list cannot be empty");
     }
 
+    @Test
+    void generateQuiz_withTooLongTag_shouldThrowException() {
+        // Given
+        quizRequest.setTags(List.of("Java", "x".repeat(Question.MAX_TAG_LENGTH + 1)));
+
+        // When & Then
+        assertThatThrownBy(() -> quizService.generateQuiz(quizRequest))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("at most " + Question.MAX_TAG_LENGTH + " characters");
+        verify(aiService, never()).generateQuizQuestions(anyString(), anyString(), anyInt());
+    }
+
     @Test
     void generateQuiz_withNullTags_shouldThrowException() {
         // Given
@@ -277,6 +368,7 @@ class QuizServiceTest {
         // Then
         assertThat(result).isEqualTo("Quiz deleted");
         verify(quizRepository).deleteById(1L);
+        verify(quizResponseCache).evictAfterCommit(1L);
     }
 
     @Test
@@ -315,7 +407,7 @@ class QuizServiceTest {
     void getQuizzes_shouldReturnAllQuizsAsResponses() {
         // Given
         List<Quiz> quizzes = Arrays.asList(sampleQuiz);
-        when(quizRepository.findAll()).thenReturn(quizzes);
+        when(quizRepository.findAllWithQuestions()).thenReturn(quizzes);
 
         // When
         List<QuizResponse> result = quizService.getQuizzes();
@@ -324,4 +416,46 @@ class QuizServiceTest {
         assertThat(result).hasSize(1);
         assertThat(result.get(0).getId()).isEqualTo(1L);
     }
-}
\ No newline at end of file
+
+    @Test
+    void getCatalogue_withCursor_shouldFetchOneExtraRowToDetectNextPage() {
+        // Given
+        List<QuizSummary> rows = List.of(summary(9L), summary(8L), summary(7L));
+        when(quizRepository.findSummariesBefore(eq(10L), any(Pageable.class))).thenReturn(rows);
+
+        // When
+        QuizCataloguePage page = quizService.getCatalogue(10L, 0, 2);
+
+        // Then
+        assertThat(page.getItems()).extracting(QuizSummary::getId).containsExactly(9L, 8L);
+        assertThat(page.isHasNext()).isTrue();
+        assertThat(page.getNextCursor()).isEqualTo(8L);
+        verify(quizRepository).findSummariesBefore(10L, PageRequest.of(0, 3));
+    }
+
+    @Test
+    void getCatalogue_withCursorOnLastPage_shouldHaveNoNextCursor() {
+        // Given
+        when(quizRepository.findSummariesBefore(eq(2L), any(Pageable.class))).thenReturn(List.of(summary(1L)));
+
+        // When
+        QuizCataloguePage page = quizService.getCatalogue(2L, 0, 20);
+
+        // Then
+        assertThat(page.getItems()).hasSize(1);
+        assertThat(page.isHasNext()).isFalse();
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    void getCatalogue_shouldRejectOversizedPage() {
+        // When & Then
+        assertThatThrownBy(() -> quizService.getCatalogue(null, 0, 1000))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(quizRepository);
+    }
+
+    private QuizSummary summary(Long id) {
+        return new QuizSummary(id, "Quiz " + id, "Description", "Java", "JUNIOR", 3L, null);
+    }
+}
@@ -0,0 +1,137 @@
+package quizApp.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import quizApp.exception.InvalidRefreshTokenException;
+import quizApp.model.RefreshToken;
+import quizApp.model.Role;
+import quizApp.model.User;
+import quizApp.repository.RefreshTokenRepository;
+import quizApp.repository.UserRepository;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Каждый вызов сервиса - своя транзакция, как в приложении: отзыв цепочки при повторном
+ * обмене должен пережить исключение, которым заканчивается запрос.
+ */
+@DataJpaTest
+@Import(RefreshTokenService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class RefreshTokenServiceTest {
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setUsername("student");
+        user.setEmail("student@example.com");
+        user.setPassword("hash");
+        user.setRole(Role.ROLE_USER);
+        user = userRepository.save(user);
+    }
+
+    @AfterEach
+    void tearDown() {
+        refreshTokenRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void rotate_shouldReplaceTokenAndKeepStoringOnlyHashes() {
+        // Given
+        String issued = refreshTokenService.issue(user);
+
+        // When
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(issued);
+
+        // Then
+        assertThat(rotation.user().getEmail()).isEqualTo("student@example.com");
+        assertThat(rotation.refreshToken()).isNotEqualTo(issued);
+        assertThat(refreshTokenRepository.findAll())
+                .hasSize(2)
+                .extracting(RefreshToken::getTokenHash)
+                .doesNotContain(issued, rotation.refreshToken())
+                .allSatisfy(hash -> assertThat(hash).hasSize(64));
+        assertThat(refreshTokenService.rotate(rotation.refreshToken()).refreshToken()).isNotBlank();
+    }
+
+    @Test
+    void reusedToken_shouldRevokeWholeFamily() {
+        // Given
+        String issued = refreshTokenService.issue(user);
+        String current = refreshTokenService.rotate(issued).refreshToken();
+        String otherLogin = refreshTokenService.issue(user);
+
+        // When
+        assertThatThrownBy(() -> refreshTokenService.rotate(issued))
+                .isInstanceOf(InvalidRefreshTokenException.class)
+                .hasMessage("Refresh token was already used");
+
+        // Then
+        assertThatThrownBy(() -> refreshTokenService.rotate(current))
+                .isInstanceOf(InvalidRefreshTokenException.class)
+                .hasMessage("Refresh token is revoked");
+        assertThat(refreshTokenService.rotate(otherLogin).refreshToken()).isNotBlank();
+    }
+
+    @Test
+    void revokedExpiredAndUnknownTokens_shouldBeRejected() {
+        // Given
+        String loggedOut = refreshTokenService.issue(user);
+        refreshTokenService.revoke(loggedOut);
+        String expired = refreshTokenService.issue(user);
+        refreshTokenRepository.findAll().stream()
+                .filter(token -> !token.isRevoked())
+                .forEach(token -> {
+                    token.setExpiresAt(LocalDateTime.now().minusMinutes(1));
+                    refreshTokenRepository.save(token);
+                });
+
+        // When & Then
+        assertThatThrownBy(() -> refreshTokenService.rotate(loggedOut)).hasMessage("Refresh token is revoked");
+        assertThatThrownBy(() -> refreshTokenService.rotate(expired)).hasMessage("Refresh token is expired");
+        assertThatThrownBy(() -> refreshTokenService.rotate("unknown")).hasMessage("Unknown refresh token");
+        assertThatThrownBy(() -> refreshTokenService.rotate(null)).hasMessage("Refresh token is missing");
+    }
+
+    @Test
+    void purgeExpiredAndDeleteAllForUser_shouldRemoveRows() {
+        // Given
+        refreshTokenService.issue(user);
+        String expired = refreshTokenService.issue(user);
+        refreshTokenRepository.findAll().stream().findFirst().ifPresent(token -> {
+            token.setExpiresAt(LocalDateTime.now().minusDays(1));
+            refreshTokenRepository.save(token);
+        });
+
+        // When
+        refreshTokenService.purgeExpired();
+        long afterPurge = refreshTokenRepository.count();
+        refreshTokenService.deleteAllForUser(user.getId());
+
+        // Then
+        assertThat(expired).isNotBlank();
+        assertThat(afterPurge).isEqualTo(1);
+        assertThat(refreshTokenRepository.count()).isZero();
+    }
+}
@@ -0,0 +1,105 @@
+package quizApp.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import quizApp.repository.UserRepository;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TokenVersionTableTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private TokenVersionTable table;
+
+    @Test
+    void check_shouldCompareWithLoadedVersions() {
+        // Given
+        when(userRepository.findTokenVersions()).thenReturn(rows(new Object[]{1L, 0}, new Object[]{5L, 2}));
+
+        // When
+        TokenVersionTable.Status beforeLoad = table.check(1L, 0);
+        table.reload();
+
+        // Then
+        assertThat(beforeLoad).isEqualTo(TokenVersionTable.Status.UNKNOWN);
+        assertThat(table.check(1L, 0)).isEqualTo(TokenVersionTable.Status.CURRENT);
+        assertThat(table.check(5L, 1)).isEqualTo(TokenVersionTable.Status.STALE);
+        assertThat(table.check(3L, 0)).isEqualTo(TokenVersionTable.Status.UNKNOWN);
+        assertThat(table.size()).isEqualTo(2);
+    }
+
+    @Test
+    void localChanges_shouldApplyOnlyAfterCommitAndSurviveStaleReload() {
+        // Given
+        when(userRepository.findTokenVersions()).thenReturn(rows(new Object[]{1L, 0}, new Object[]{2L, 0}));
+        table.reload();
+
+        // When
+        TransactionSynchronizationManager.initSynchronization();
+        TokenVersionTable.Status beforeCommit;
+        try {
+            table.markChangedAfterCommit(1L, 1);
+            table.markDeletedAfterCommit(2L);
+            beforeCommit = table.check(1L, 0);
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        // снимок, прочитанный до коммита, не должен вернуть старые версии
+        table.reload();
+
+        // Then
+        assertThat(beforeCommit).isEqualTo(TokenVersionTable.Status.CURRENT);
+        assertThat(table.check(1L, 0)).isEqualTo(TokenVersionTable.Status.STALE);
+        assertThat(table.check(1L, 1)).isEqualTo(TokenVersionTable.Status.CURRENT);
+        assertThat(table.check(2L, 0)).isEqualTo(TokenVersionTable.Status.STALE);
+    }
+
+    @Test
+    void reload_shouldDropDeletedUsersOnceSnapshotCatchesUp() {
+        // Given
+        when(userRepository.findTokenVersions())
+                .thenReturn(rows(new Object[]{1L, 0}, new Object[]{2L, 0}))
+                .thenReturn(rows(new Object[]{1L, 0}));
+        table.reload();
+        table.markDeletedAfterCommit(2L);
+
+        // When
+        table.reload();
+
+        // Then
+        assertThat(table.check(2L, 0)).isEqualTo(TokenVersionTable.Status.UNKNOWN);
+        assertThat(table.check(1L, 0)).isEqualTo(TokenVersionTable.Status.CURRENT);
+    }
+
+    @Test
+    void reload_whenDatabaseFails_shouldKeepPreviousTable() {
+        // Given
+        when(userRepository.findTokenVersions())
+                .thenReturn(rows(new Object[]{1L, 0}))
+                .thenThrow(new IllegalStateException("connection refused"));
+        table.reload();
+
+        // When
+        table.reload();
+
+        // Then
+        assertThat(table.check(1L, 0)).isEqualTo(TokenVersionTable.Status.CURRENT);
+    }
+
+    private static List<Object[]> rows(Object[]... rows) {
+        return List.of(rows);
+    }
+}
@@ -0,0 +1,125 @@
+package quizApp.utils;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.client.HttpServerErrorException;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AIHttpClientTest {
+
+    private OpenRouterStubServer stub;
+    private MeterRegistry meterRegistry;
+    private AIHttpClient client;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        stub = new OpenRouterStubServer();
+        meterRegistry = new SimpleMeterRegistry();
+        client = new AIHttpClient(Duration.ofSeconds(2), Duration.ofSeconds(2), Duration.ofSeconds(3), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+        stub.close();
+    }
+
+    @Test
+    void post_shouldSendHeadersAndDecodeGzipResponse() throws Exception {
+        // Given
+        stub.setHandler((exchange, body) -> {
+            assertThat(exchange.getRequestHeaders().getFirst("Authorization")).isEqualTo("Bearer key");
+            OpenRouterStubServer.respond(exchange, 200, "{\"echo\": " + body + "}");
+        });
+
+        // When
+        String response = client.post(stub.url(), jsonHeaders(), "{\"model\": \"m\"}");
+
+        // Then
+        assertThat(response).isEqualTo("{\"echo\": {\"model\": \"m\"}}");
+        assertThat(stub.getRequestBodies()).containsExactly("{\"model\": \"m\"}");
+    }
+
+    @Test
+    void post_sequentialRequests_shouldReuseKeepAliveConnection() throws Exception {
+        // Given
+        stub.setHandler((exchange, body) -> OpenRouterStubServer.respond(exchange, 200, "{}"));
+
+        // When
+        for (int i = 0; i < 3; i++) {
+            client.post(stub.url(), jsonHeaders(), "{}");
+        }
+
+        // Then
+        assertThat(stub.getConnectionCount()).isEqualTo(1);
+        assertThat(client.getStats().requests()).isEqualTo(3);
+    }
+
+    @Test
+    void post_whenServerFails_shouldThrowWithStatus() {
+        // Given
+        stub.setHandler((exchange, body) -> OpenRouterStubServer.respond(exchange, 502, "{\"error\": \"upstream\"}"));
+
+        // When & Then
+        assertThatThrownBy(() -> client.post(stub.url(), jsonHeaders(), "{}"))
+                .isInstanceOf(HttpServerErrorException.class)
+                .hasMessageContaining("502");
+    }
+
+    @Test
+    void post_whenResponseIsLate_shouldFailWithTimeout() {
+        // Given
+        stub.setHandler((exchange, body) -> {
+            Thread.sleep(5_000);
+            OpenRouterStubServer.respond(exchange, 200, "{}");
+        });
+
+        // When & Then
+        assertThatThrownBy(() -> client.post(stub.url(), jsonHeaders(), "{}"))
+                .isInstanceOf(HttpTimeoutException.class);
+    }
+
+    @Test
+    void postForStream_shouldDeliverEventsAndAbortAfterTotalDeadline() {
+        // Given
+        stub.setHandler((exchange, body) ->
+                OpenRouterStubServer.respondWithEvents(exchange, List.of("one", "two", "three", "four"), 1_500));
+        List<String> received = new ArrayList<>();
+
+        // When & Then
+        assertThatThrownBy(() -> client.postForStream(stub.url(), jsonHeaders(), "{}", in -> {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith("data: ")) {
+                    received.add(line.substring(6));
+                }
+            }
+            return null;
+        })).isInstanceOf(HttpTimeoutException.class)
+                .hasMessageContaining("total deadline");
+        assertThat(received).contains("one", "two").doesNotContain("four");
+    }
+
+    private HttpHeaders jsonHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set("Authorization", "Bearer key");
+        return headers;
+    }
+}
@@ -0,0 +1,114 @@
+package quizApp.utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import quizApp.model.Question;
+import quizApp.model.QuestionType;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AIResponseReaderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AIResponseReader reader = new AIResponseReader(objectMapper.getFactory());
+
+    private static final String QUESTION_A = """
+            {"text": "What is JVM?", "type": "code", "options": ["A1", "B1", "C1", "D1"],
+             "correctAnswer": "A", "explanation": "Because", "tags": ["JVM"], "difficulty": "MIDDLE",
+             "extra": {"nested": [1, 2]}}""";
+
+    private static final String QUESTION_B = """
+            {"text": "What is GC?", "type": "UNKNOWN", "options": ["A2", "B2", "C2", "D2"], "correctAnswer": "B"}""";
+
+    @Test
+    void readCompletion_shouldExtractFirstChoiceContent() throws Exception {
+        // Given
+        String response = objectMapper.writeValueAsString(Map.of(
+                "id", "gen-1",
+                "choices", List.of(
+                        Map.of("index", 0, "message", Map.of("role", "assistant", "content", "first")),
+                        Map.of("index", 1, "message", Map.of("role", "assistant", "content", "second"))),
+                "usage", Map.of("total_tokens", 10)));
+
+        // When
+        AIResponseReader.Completion completion = reader.readCompletion(response);
+
+        // Then
+        assertThat(completion.content()).isEqualTo("first");
+        assertThat(completion.error()).isNull();
+    }
+
+    @Test
+    void readCompletion_shouldExtractErrorMessage() throws Exception {
+        // When
+        AIResponseReader.Completion completion =
+                reader.readCompletion("{\"error\": {\"code\": 429, \"message\": \"Rate limit exceeded\"}}");
+
+        // Then
+        assertThat(completion.error()).isEqualTo("Rate limit exceeded");
+        assertThat(completion.content()).isNull();
+    }
+
+    @Test
+    void readQuestions_shouldSkipReasoningAndMarkdownFence() throws Exception {
+        // Given
+        String content = "<think>Need {some} \"questions\": [ideas] first</think>\nHere you go:\n```json\n"
+                + "{\"questions\": [" + QUESTION_A + ", " + QUESTION_B + "]}\n```";
+
+        // When
+        List<Question> questions = reader.readQuestions(content);
+
+        // Then
+        assertThat(questions).extracting(Question::getText).containsExactly("What is JVM?", "What is GC?");
+        Question first = questions.get(0);
+        assertThat(first.getType()).isEqualTo(QuestionType.CODE);
+        assertThat(first.getOptions()).containsExactly("A1", "B1", "C1", "D1");
+        assertThat(first.getTags()).containsExactly("JVM");
+        assertThat(first.getDifficulty()).isEqualTo("MIDDLE");
+        Question second = questions.get(1);
+        assertThat(second.getType()).isEqualTo(QuestionType.THEORY);
+        assertThat(second.getDifficulty()).isEqualTo("JUNIOR");
+        assertThat(second.getExplanation()).isEmpty();
+    }
+
+    @Test
+    void readQuestions_whenArrayIsTruncated_shouldKeepCompleteQuestions() throws Exception {
+        // Given
+        String content = "{\"questions\": [" + QUESTION_A + ", " + QUESTION_B + ", {\"text\": \"Cut off in the mi";
+
+        // When
+        List<Question> questions = reader.readQuestions(content);
+
+        // Then
+        assertThat(questions).extracting(Question::getText).containsExactly("What is JVM?", "What is GC?");
+    }
+
+    @Test
+    void readQuestions_whenReasoningMentionsQuestionsWithoutFence_shouldUseRealArray() throws Exception {
+        // Given
+        String content = "I will produce {\"questions\": []} as asked.\n{\"questions\": [" + QUESTION_B + "]}";
+
+        // When
+        List<Question> questions = reader.readQuestions(content);
+
+        // Then
+        assertThat(questions).extracting(Question::getText).containsExactly("What is GC?");
+    }
+
+    @Test
+    void readQuestions_whenNoQuestionsArray_shouldReturnEmptyList() throws Exception {
+        // When & Then
+        assertThat(reader.readQuestions("Sorry, I cannot help with that")).isEmpty();
+    }
+
+    @Test
+    void readQuestion_whenNotAnObject_shouldFail() {
+        // When & Then
+        assertThatThrownBy(() -> reader.readQuestion("[1, 2]"))
+                .hasMessageContaining("not a JSON object");
+    }
+}
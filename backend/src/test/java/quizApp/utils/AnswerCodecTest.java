@@ -0,0 +1,82 @@
+package quizApp.utils;
+
+import org.junit.jupiter.api.Test;
+import quizApp.model.Question;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AnswerCodecTest {
+
+    @Test
+    void encode_shouldWriteOneCharPerQuestionOrderedById() {
+        // Given
+        Question first = question(1L);
+        Question second = question(2L);
+        Question third = question(3L);
+        Map<Question, String> answers = new HashMap<>();
+        answers.put(third, "C");
+        answers.put(first, "A");
+
+        // When
+        String encoded = AnswerCodec.encode(List.of(third, second, first), answers);
+
+        // Then
+        assertThat(encoded).isEqualTo("A-C");
+    }
+
+    @Test
+    void encode_shouldKeepAnswersThatAreNotSingleCapitalLetterAsRawText() {
+        // Given
+        Question first = question(1L);
+        Question second = question(2L);
+        Question third = question(3L);
+        Map<Question, String> answers = Map.of(first, "Framework", second, "b", third, "D");
+
+        // When
+        String encoded = AnswerCodec.encode(List.of(first, second, third), answers);
+        Map<Long, String> raw = AnswerCodec.rawAnswers(List.of(first, second, third), answers);
+
+        // Then
+        assertThat(encoded).isEqualTo("??D");
+        assertThat(raw).containsOnly(Map.entry(1L, "Framework"), Map.entry(2L, "b"));
+        assertThat(AnswerCodec.decode(encoded, List.of(first, second, third), raw))
+                .containsExactly(Map.entry(first, "Framework"), Map.entry(second, "b"), Map.entry(third, "D"));
+    }
+
+    @Test
+    void encode_shouldMatchAnswersByQuestionId() {
+        // Given
+        Question stored = question(5L);
+        Question detachedCopy = question(5L);
+
+        // When
+        String encoded = AnswerCodec.encode(List.of(stored), Map.of(detachedCopy, "B"));
+
+        // Then
+        assertThat(encoded).isEqualTo("B");
+    }
+
+    @Test
+    void decode_shouldSkipUnansweredQuestions() {
+        // Given
+        Question first = question(1L);
+        Question second = question(2L);
+        Question third = question(3L);
+
+        // When
+        Map<Question, String> answers = AnswerCodec.decode("A-D", List.of(second, third, first), Map.of());
+
+        // Then
+        assertThat(answers).containsExactly(Map.entry(first, "A"), Map.entry(third, "D"));
+    }
+
+    private static Question question(Long id) {
+        Question question = new Question();
+        question.setId(id);
+        return question;
+    }
+}
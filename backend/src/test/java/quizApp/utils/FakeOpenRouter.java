@@ -0,0 +1,215 @@
+package quizApp.utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Правдоподобная замена chat/completions OpenRouter для нагрузочных и интеграционных тестов.
+ * Генерирует столько вопросов, сколько просит промпт, и умеет имитировать задержки,
+ * ошибки, оборванный JSON, рассуждения перед ответом и потоковый режим (stream=true).
+ * <p>
+ * Отдельный запуск: {@code FakeOpenRouter.main("8089")}, затем
+ * ai.api.url=http://127.0.0.1:8089/api/v1/chat/completions. Поведение задаётся
+ * системными свойствами fake-openrouter.* (см. {@link #fromSystemProperties()}).
+ */
+public class FakeOpenRouter implements OpenRouterStubServer.Handler {
+
+    private static final Pattern QUESTION_COUNT = Pattern.compile("из (\\d+) вопросов");
+    private static final Pattern TOPICS = Pattern.compile("ТЕМЫ: (.*)");
+    private static final Pattern DIFFICULTY = Pattern.compile("УРОВЕНЬ: (\\w+)");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicLong truncated = new AtomicLong();
+    private final AtomicLong sequence = new AtomicLong();
+
+    private LongSupplier latencyMs = () -> 0;
+    private double errorRate;
+    private int errorStatus = 502;
+    private double truncationRate;
+    private boolean reasoningPreamble;
+    private int streamChunkSize = 40;
+    private long streamChunkDelayMs = 5;
+
+    /**
+     * Задержка ответа в миллисекундах.
+     */
+    public static LongSupplier fixedLatency(long ms) {
+        return () -> ms;
+    }
+
+    public static LongSupplier uniformLatency(long minMs, long maxMs) {
+        return () -> ThreadLocalRandom.current().nextLong(minMs, maxMs + 1);
+    }
+
+    /**
+     * Логнормальное распределение с заданными медианой и p95 - похоже на реальные задержки LLM с длинным хвостом.
+     */
+    public static LongSupplier logNormalLatency(long medianMs, long p95Ms) {
+        double mu = Math.log(Math.max(1, medianMs));
+        double sigma = Math.max(0.0, (Math.log(Math.max(p95Ms, medianMs)) - mu) / 1.645);
+        return () -> Math.round(Math.exp(mu + sigma * ThreadLocalRandom.current().nextGaussian()));
+    }
+
+    public static FakeOpenRouter fromSystemProperties() {
+        FakeOpenRouter fake = new FakeOpenRouter()
+                .withLatency(logNormalLatency(Long.getLong("fake-openrouter.latency-median-ms", 200),
+                        Long.getLong("fake-openrouter.latency-p95-ms", 1000)))
+                .withErrorRate(Double.parseDouble(System.getProperty("fake-openrouter.error-rate", "0")))
+                .withTruncationRate(Double.parseDouble(System.getProperty("fake-openrouter.truncation-rate", "0")))
+                .withReasoningPreamble(Boolean.parseBoolean(System.getProperty("fake-openrouter.reasoning", "false")));
+        fake.errorStatus = Integer.getInteger("fake-openrouter.error-status", 502);
+        return fake;
+    }
+
+    public FakeOpenRouter withLatency(LongSupplier latencyMs) {
+        this.latencyMs = latencyMs;
+        return this;
+    }
+
+    public FakeOpenRouter withErrorRate(double errorRate) {
+        this.errorRate = errorRate;
+        return this;
+    }
+
+    public FakeOpenRouter withErrorStatus(int errorStatus) {
+        this.errorStatus = errorStatus;
+        return this;
+    }
+
+    public FakeOpenRouter withTruncationRate(double truncationRate) {
+        this.truncationRate = truncationRate;
+        return this;
+    }
+
+    public FakeOpenRouter withReasoningPreamble(boolean reasoningPreamble) {
+        this.reasoningPreamble = reasoningPreamble;
+        return this;
+    }
+
+    public FakeOpenRouter withStreamChunks(int chunkSize, long chunkDelayMs) {
+        this.streamChunkSize = chunkSize;
+        this.streamChunkDelayMs = chunkDelayMs;
+        return this;
+    }
+
+    public long getRequests() {
+        return requests.get();
+    }
+
+    public long getErrors() {
+        return errors.get();
+    }
+
+    public long getTruncated() {
+        return truncated.get();
+    }
+
+    @Override
+    public void handle(HttpExchange exchange, String requestBody) throws Exception {
+        requests.incrementAndGet();
+        JsonNode request = objectMapper.readTree(requestBody);
+        String prompt = request.path("messages").path(0).path("content").asText();
+        boolean stream = request.path("stream").asBoolean(false);
+
+        long latency = latencyMs.getAsLong();
+        if (latency > 0) {
+            Thread.sleep(latency);
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (random.nextDouble() < errorRate) {
+            errors.incrementAndGet();
+            OpenRouterStubServer.respond(exchange, errorStatus,
+                    "{\"error\": {\"code\": " + errorStatus + ", \"message\": \"Simulated upstream error\"}}");
+            return;
+        }
+
+        String content = content(prompt);
+        if (random.nextDouble() < truncationRate) {
+            truncated.incrementAndGet();
+            content = content.substring(0, Math.max(1, content.length() * 3 / 4));
+        }
+
+        if (stream) {
+            streamContent(exchange, request.path("model").asText(), content);
+        } else {
+            Map<String, Object> completion = Map.of(
+                    "id", "gen-" + sequence.incrementAndGet(),
+                    "model", request.path("model").asText(),
+                    "choices", List.of(Map.of("index", 0, "finish_reason", "stop",
+                            "message", Map.of("role", "assistant", "content", content))));
+            OpenRouterStubServer.respond(exchange, 200, objectMapper.writeValueAsString(completion));
+        }
+    }
+
+    private String content(String prompt) throws Exception {
+        int count = find(QUESTION_COUNT, prompt, "5").transform(Integer::parseInt);
+        String topics = find(TOPICS, prompt, "Java").trim();
+        String difficulty = find(DIFFICULTY, prompt, "JUNIOR");
+
+        List<Map<String, Object>> questions = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            long id = sequence.incrementAndGet();
+            questions.add(Map.of(
+                    "text", "Вопрос " + id + " по темам " + topics + ": что выведет программа?",
+                    "type", "THEORY",
+                    "options", List.of("Вариант A", "Вариант B", "Вариант C", "Вариант D"),
+                    "correctAnswer", String.valueOf("ABCD".charAt((int) (id % 4))),
+                    "explanation", "Сгенерировано FakeOpenRouter",
+                    "tags", List.of(topics.split(",")[0].trim()),
+                    "difficulty", difficulty));
+        }
+        String json = objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(Map.of("questions", questions));
+        if (!reasoningPreamble) {
+            return json;
+        }
+        return "<think>Нужно составить " + count + " вопросов {по темам} " + topics
+                + ", формат \"questions\": [...]</think>\nВот тест:\n```json\n" + json + "\n```";
+    }
+
+    private void streamContent(HttpExchange exchange, String model, String content) throws Exception {
+        exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+        exchange.sendResponseHeaders(200, 0);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(": OPENROUTER PROCESSING\n\n".getBytes(StandardCharsets.UTF_8));
+            for (int start = 0; start < content.length(); start += streamChunkSize) {
+                String delta = content.substring(start, Math.min(content.length(), start + streamChunkSize));
+                Map<String, Object> chunk = Map.of("model", model,
+                        "choices", List.of(Map.of("index", 0, "delta", Map.of("content", delta))));
+                out.write(("data: " + objectMapper.writeValueAsString(chunk) + "\n\n").getBytes(StandardCharsets.UTF_8));
+                out.flush();
+                if (streamChunkDelayMs > 0) {
+                    Thread.sleep(streamChunkDelayMs);
+                }
+            }
+            out.write("data: [DONE]\n\n".getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private String find(Pattern pattern, String text, String defaultValue) {
+        Matcher matcher = pattern.matcher(text);
+        return matcher.find() ? matcher.group(1) : defaultValue;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8089;
+        OpenRouterStubServer server = new OpenRouterStubServer(port);
+        server.setHandler(fromSystemProperties());
+        System.out.println("Fake OpenRouter listening on " + server.url());
+        Thread.currentThread().join();
+    }
+}
@@ -0,0 +1,139 @@
+package quizApp.utils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import quizApp.model.Role;
+import quizApp.model.User;
+import quizApp.model.dto.UserPrincipal;
+import quizApp.repository.UserRepository;
+import quizApp.service.PrincipalCache;
+import quizApp.service.TokenVersionTable;
+import quizApp.service.UserDetailsServiceImpl;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class JwtAuthenticationFilterTest {
+
+    private static final String SECRET = "test-secret-key-that-is-long-enough-for-hs512-signatures-0123456789abcdef";
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private JwtUtils jwtUtils;
+    private TokenVersionTable tokenVersions;
+    private JwtAuthenticationFilter filter;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 60_000);
+        ReflectionTestUtils.setField(jwtUtils, "selfContainedTokens", true);
+        ReflectionTestUtils.setField(jwtUtils, "verifiedTokenCacheSize", 100L);
+        jwtUtils.init();
+
+        UserDetailsServiceImpl userDetailsService = new UserDetailsServiceImpl();
+        ReflectionTestUtils.setField(userDetailsService, "userRepository", userRepository);
+        PrincipalCache principalCache = new PrincipalCache();
+        ReflectionTestUtils.setField(principalCache, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(principalCache, "maxSize", 100L);
+        ReflectionTestUtils.setField(principalCache, "ttlSeconds", 60L);
+        ReflectionTestUtils.invokeMethod(principalCache, "init");
+        tokenVersions = new TokenVersionTable();
+        ReflectionTestUtils.setField(tokenVersions, "userRepository", userRepository);
+
+        filter = new JwtAuthenticationFilter();
+        ReflectionTestUtils.setField(filter, "jwtUtils", jwtUtils);
+        ReflectionTestUtils.setField(filter, "userDetailsService", userDetailsService);
+        ReflectionTestUtils.setField(filter, "principalCache", principalCache);
+        ReflectionTestUtils.setField(filter, "tokenVersions", tokenVersions);
+
+        user = new User();
+        user.setId(7L);
+        user.setUsername("student");
+        user.setEmail("student@example.com");
+        user.setPassword("hash");
+        user.setRole(Role.ROLE_USER);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void currentSelfContainedToken_shouldAuthenticateWithoutUserLookup() throws Exception {
+        // Given
+        when(userRepository.findTokenVersions()).thenReturn(List.<Object[]>of(new Object[]{7L, 0}));
+        tokenVersions.reload();
+        String token = token(user);
+
+        // When
+        Authentication authentication = filter(token);
+
+        // Then
+        assertThat(authentication).isNotNull();
+        UserPrincipal principal = (UserPrincipal) authentication.getPrincipal();
+        assertThat(principal.getId()).isEqualTo(7L);
+        assertThat(principal.getRealUsername()).isEqualTo("student");
+        assertThat(principal.getUsername()).isEqualTo("student@example.com");
+        assertThat(authentication.getAuthorities()).isEqualTo(Role.ROLE_USER.getAuthorities());
+        verify(userRepository, never()).findByEmail("student@example.com");
+    }
+
+    @Test
+    void tokenOfChangedRole_shouldBeRejected() throws Exception {
+        // Given
+        String oldToken = token(user);
+        when(userRepository.findTokenVersions()).thenReturn(List.<Object[]>of(new Object[]{7L, 1}));
+        tokenVersions.reload();
+
+        // When
+        Authentication authentication = filter(oldToken);
+
+        // Then
+        assertThat(authentication).isNull();
+    }
+
+    @Test
+    void userMissingFromTable_shouldBeCheckedAgainstDatabase() throws Exception {
+        // Given
+        String token = token(user);
+        user.setTokenVersion(1);
+        when(userRepository.findByEmail("student@example.com")).thenReturn(Optional.of(user));
+
+        // When
+        Authentication authentication = filter(token);
+
+        // Then
+        assertThat(authentication).isNull();
+        verify(userRepository).findByEmail("student@example.com");
+    }
+
+    private String token(User user) {
+        UserPrincipal principal = UserPrincipal.build(user);
+        return jwtUtils.generateJwtToken(new UsernamePasswordAuthenticationToken(principal, null, List.of()));
+    }
+
+    private Authentication filter(String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/quizzes");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
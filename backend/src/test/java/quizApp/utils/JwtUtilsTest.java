@@ -0,0 +1,82 @@
+package quizApp.utils;
+
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.util.ReflectionTestUtils;
+import quizApp.model.Role;
+import quizApp.model.dto.UserPrincipal;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtUtilsTest {
+
+    private static final String SECRET = "test-secret-key-that-is-long-enough-for-hs512-signatures-0123456789abcdef";
+
+    private JwtUtils jwtUtils;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtils = jwtUtils(60_000, 100L);
+    }
+
+    @Test
+    void parseVerifiedClaims_shouldVerifyOnceAndReuseClaims() {
+        // Given
+        String token = token(jwtUtils);
+
+        // When
+        Claims first = jwtUtils.parseVerifiedClaims(token);
+        Claims second = jwtUtils.parseVerifiedClaims(token);
+
+        // Then
+        assertThat(first.getSubject()).isEqualTo("student@example.com");
+        assertThat(jwtUtils.getPrincipalFromClaims(first).getRole()).isEqualTo(Role.ROLE_ADMIN);
+        assertThat(second).isSameAs(first);
+        assertThat(jwtUtils.validateJwtToken(token)).isTrue();
+    }
+
+    @Test
+    void parseVerifiedClaims_shouldRejectTamperedAndForeignTokens() {
+        // Given
+        String token = token(jwtUtils);
+        jwtUtils.parseVerifiedClaims(token);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+        JwtUtils other = new JwtUtils();
+        ReflectionTestUtils.setField(other, "jwtSecret", SECRET.replace('0', '1'));
+        ReflectionTestUtils.setField(other, "jwtExpirationMs", 60_000);
+        other.init();
+
+        // When & Then
+        assertThat(jwtUtils.parseVerifiedClaims(tampered)).isNull();
+        assertThat(jwtUtils.parseVerifiedClaims(token(other))).isNull();
+        assertThat(jwtUtils.parseVerifiedClaims("not-a-token")).isNull();
+    }
+
+    @Test
+    void parseVerifiedClaims_shouldRejectExpiredTokenWithoutCache() {
+        // Given
+        JwtUtils expiring = jwtUtils(-1_000, 0L);
+
+        // When & Then
+        assertThat(expiring.parseVerifiedClaims(token(expiring))).isNull();
+    }
+
+    private static JwtUtils jwtUtils(int expirationMs, long cacheSize) {
+        JwtUtils jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", expirationMs);
+        ReflectionTestUtils.setField(jwtUtils, "selfContainedTokens", true);
+        ReflectionTestUtils.setField(jwtUtils, "verifiedTokenCacheSize", cacheSize);
+        jwtUtils.init();
+        return jwtUtils;
+    }
+
+    private static String token(JwtUtils jwtUtils) {
+        UserPrincipal principal = new UserPrincipal(7L, "student", "student@example.com", null, Role.ROLE_ADMIN, 0);
+        return jwtUtils.generateJwtToken(new UsernamePasswordAuthenticationToken(principal, null, List.of()));
+    }
+}
@@ -0,0 +1,62 @@
+package quizApp.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QuestionStreamExtractorTest {
+
+    @Test
+    void append_shouldEmitEachObjectAsSoonAsItIsClosed() {
+        // Given
+        List<String> objects = new ArrayList<>();
+        QuestionStreamExtractor extractor = new QuestionStreamExtractor(objects::add);
+
+        // When
+        extractor.append("```json\n{\"questions\": [{\"text\": \"Q1\", \"options\": [\"A\", \"B\"]}");
+
+        // Then
+        assertThat(objects).containsExactly("{\"text\": \"Q1\", \"options\": [\"A\", \"B\"]}");
+
+        // When
+        extractor.append(", {\"text\": \"Q2\"}]}\n```");
+
+        // Then
+        assertThat(objects).hasSize(2);
+        assertThat(objects.get(1)).isEqualTo("{\"text\": \"Q2\"}");
+        assertThat(extractor.isFinished()).isTrue();
+    }
+
+    @Test
+    void append_shouldHandleTokensSplitAcrossKeyAndBraces() {
+        // Given
+        List<String> objects = new ArrayList<>();
+        QuestionStreamExtractor extractor = new QuestionStreamExtractor(objects::add);
+        String content = "Вот тест:\n{\"quest" + "ions\"" + ": [" + "{\"te" + "xt\": \"Q1\"" + "}" + "]}";
+
+        // When
+        for (char c : content.toCharArray()) {
+            extractor.append(String.valueOf(c));
+        }
+
+        // Then
+        assertThat(objects).containsExactly("{\"text\": \"Q1\"}");
+    }
+
+    @Test
+    void append_shouldIgnoreBracesInsideStrings() {
+        // Given
+        List<String> objects = new ArrayList<>();
+        QuestionStreamExtractor extractor = new QuestionStreamExtractor(objects::add);
+
+        // When
+        extractor.append("{\"questions\": [{\"text\": \"int[] a = {1}; \\\"}\\\"\"}, {\"text\": \"Q2\"");
+
+        // Then
+        assertThat(objects).containsExactly("{\"text\": \"int[] a = {1}; \\\"}\\\"\"}");
+        assertThat(extractor.isFinished()).isFalse();
+    }
+}
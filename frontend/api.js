@@ -2,6 +2,15 @@ const API_BASE = '';
 
 class QuizAPI {
     static token = localStorage.getItem('authToken');
+    // Access-токен живёт минуты; по refresh-токену сервер выдаёт новую пару
+    static refreshToken = localStorage.getItem('refreshToken');
+    static refreshPromise = null;
+    // Ответ 401 на эти запросы - не истёкший токен, обновлять сессию не нужно
+    static SESSION_ENDPOINTS = ['/api/auth/login', '/api/auth/register', '/api/auth/refresh', '/api/auth/logout'];
+
+    // Последние GET-ответы с ETag: повторный запрос уходит с If-None-Match, на 304 берём тело отсюда
+    static etagCache = new Map();
+    static ETAG_CACHE_SIZE = 50;
 
     static async makeRequest(url, options = {}) {
         console.log(`🌐 Запрос: ${API_BASE}${url}`); // Добавим логирование
@@ -14,15 +23,20 @@ class QuizAPI {
             ...options,
         };
 
-        // Добавляем токен авторизации, если он есть
-        if (this.token) {
-            config.headers.Authorization = `Bearer ${this.token}`;
+        const isGet = (config.method || 'GET').toUpperCase() === 'GET';
+        const cached = isGet ? this.etagCache.get(url) : null;
+        if (cached) {
+            config.headers['If-None-Match'] = cached.etag;
         }
 
         try {
-            const response = await fetch(`${API_BASE}${url}`, config);
+            const response = await this.authorizedFetch(url, config);
             console.log(`📨 Ответ ${url}: статус ${response.status}`);
 
+            if (response.status === 304 && cached) {
+                return cached.data;
+            }
+
             if (response.status === 401) {
                 // Токен истек или невалиден
                 this.handleUnauthorized();
@@ -42,6 +56,11 @@ class QuizAPI {
 
             const data = await response.json();
             console.log(`✅ Успех ${url}:`, data);
+
+            const etag = response.headers.get('ETag');
+            if (isGet && etag) {
+                this.rememberEtag(url, etag, data);
+            }
             return data;
         } catch (error) {
             console.error('API Error:', error);
@@ -49,9 +68,99 @@ class QuizAPI {
         }
     }
 
+    // Запрос с текущим access-токеном; на 401 один раз обновляем пару токенов и повторяем
+    static async authorizedFetch(url, config) {
+        if (this.token) {
+            config.headers.Authorization = `Bearer ${this.token}`;
+        }
+        const response = await fetch(`${API_BASE}${url}`, config);
+        if (response.status !== 401 || this.SESSION_ENDPOINTS.includes(url) || !(await this.refreshSession())) {
+            return response;
+        }
+        config.headers.Authorization = `Bearer ${this.token}`;
+        return await fetch(`${API_BASE}${url}`, config);
+    }
+
+    // Одновременные 401 ждут одного обновления: refresh-токен одноразовый,
+    // повторное предъявление сервер считает утечкой и завершает сессию
+    static refreshSession() {
+        if (!this.refreshPromise) {
+            this.refreshPromise = this.doRefresh().finally(() => {
+                this.refreshPromise = null;
+            });
+        }
+        return this.refreshPromise;
+    }
+
+    static async doRefresh() {
+        // Другая вкладка уже обменяла токен - берём её пару
+        const storedToken = localStorage.getItem('authToken');
+        if (storedToken && storedToken !== this.token) {
+            this.token = storedToken;
+            this.refreshToken = localStorage.getItem('refreshToken');
+            return true;
+        }
+        if (!this.refreshToken) {
+            return false;
+        }
+        try {
+            const response = await fetch(`${API_BASE}/api/auth/refresh`, {
+                method: 'POST',
+                headers: { 'Content-Type': 'application/json' },
+                body: JSON.stringify({ refreshToken: this.refreshToken }),
+            });
+            if (!response.ok) {
+                console.warn(`🔒 Обновление сессии отклонено: ${response.status}`);
+                return false;
+            }
+            this.setSession(await response.json());
+            return true;
+        } catch (error) {
+            console.error('Refresh Error:', error);
+            return false;
+        }
+    }
+
+    static setSession(response) {
+        this.token = response.token;
+        this.refreshToken = response.refreshToken || null;
+        localStorage.setItem('authToken', this.token);
+        if (this.refreshToken) {
+            localStorage.setItem('refreshToken', this.refreshToken);
+        } else {
+            localStorage.removeItem('refreshToken');
+        }
+    }
+
+    // Сервер отзывает refresh-токен; ответ не ждём - локально сессия заканчивается сразу
+    static endSession() {
+        if (this.refreshToken) {
+            fetch(`${API_BASE}/api/auth/logout`, {
+                method: 'POST',
+                headers: { 'Content-Type': 'application/json' },
+                body: JSON.stringify({ refreshToken: this.refreshToken }),
+            }).catch(error => console.error('Logout Error:', error));
+        }
+        this.token = null;
+        this.refreshToken = null;
+        localStorage.removeItem('authToken');
+        localStorage.removeItem('refreshToken');
+    }
+
+    static rememberEtag(url, etag, data) {
+        this.etagCache.delete(url);
+        this.etagCache.set(url, { etag, data });
+        if (this.etagCache.size > this.ETAG_CACHE_SIZE) {
+            // Map хранит порядок вставки - первый ключ самый старый
+            this.etagCache.delete(this.etagCache.keys().next().value);
+        }
+    }
+
     static handleUnauthorized() {
         localStorage.removeItem('authToken');
+        localStorage.removeItem('refreshToken');
         this.token = null;
+        this.refreshToken = null;
         if (typeof showScreen === 'function') {
             showScreen('login');
         }
@@ -65,8 +174,7 @@ class QuizAPI {
             body: JSON.stringify({ username, password }),
         });
 
-        this.token = response.token;
-        localStorage.setItem('authToken', this.token);
+        this.setSession(response);
         return response;
     }
 
@@ -76,8 +184,7 @@ class QuizAPI {
             body: JSON.stringify({ username, email, password }),
         });
 
-        this.token = response.token;
-        localStorage.setItem('authToken', this.token);
+        this.setSession(response);
         return response;
     }
 
@@ -91,8 +198,18 @@ class QuizAPI {
         return await this.makeRequest('/api/quizzes/all-quizzes'); // Добавить /api/
     }
 
+    // Каталог без вопросов, постранично: cursor - id последнего теста предыдущей страницы
+    static async getQuizCatalogue(cursor = null, size = 20) {
+        const params = new URLSearchParams({ size });
+        if (cursor !== null && cursor !== undefined) {
+            params.set('cursor', cursor);
+        }
+        return await this.makeRequest(`/api/quizzes/catalogue?${params}`);
+    }
+
+    // Генерация идёт в фоне: ставим задачу и ждём её через long-poll
     static async generateQuiz(tags, difficulty, questionCount) {
-        return await this.makeRequest('/api/quizzes/generate', { // Добавить /api/
+        let job = await this.makeRequest('/api/quizzes/generate/jobs', {
             method: 'POST',
             body: JSON.stringify({
                 tags: tags.split(',').map(tag => tag.trim()),
@@ -100,6 +217,86 @@ class QuizAPI {
                 questionCount: questionCount
             })
         });
+
+        while (!job.finished) {
+            job = await this.getGenerationJob(job.jobId, 30);
+        }
+
+        if (job.status === 'FAILED') {
+            throw new Error(job.error || 'Не удалось сгенерировать тест');
+        }
+        return job.quiz;
+    }
+
+    // Потоковая генерация: onQuestion вызывается для каждого готового вопроса,
+    // результат — сохранённый тест целиком
+    static async generateQuizStream(tags, difficulty, questionCount, onQuestion) {
+        const headers = {
+            'Content-Type': 'application/json',
+            'Accept': 'text/event-stream, application/json'
+        };
+
+        const response = await this.authorizedFetch('/api/quizzes/generate/stream', {
+            method: 'POST',
+            headers,
+            body: JSON.stringify({
+                tags: tags.split(',').map(tag => tag.trim()),
+                difficulty: difficulty,
+                questionCount: questionCount
+            })
+        });
+
+        if (response.status === 401) {
+            this.handleUnauthorized();
+            throw new Error('Сессия истекла. Пожалуйста, войдите снова.');
+        }
+        if (!response.ok) {
+            throw new Error(await response.text() || `Ошибка ${response.status}`);
+        }
+
+        const reader = response.body.getReader();
+        const decoder = new TextDecoder();
+        let buffer = '';
+        let quiz = null;
+
+        while (true) {
+            const { done, value } = await reader.read();
+            if (done) break;
+            buffer += decoder.decode(value, { stream: true });
+
+            // События SSE разделены пустой строкой
+            let boundary;
+            while ((boundary = buffer.indexOf('\n\n')) !== -1) {
+                const rawEvent = buffer.slice(0, boundary);
+                buffer = buffer.slice(boundary + 2);
+
+                let eventName = 'message';
+                let data = '';
+                rawEvent.split('\n').forEach(line => {
+                    if (line.startsWith('event:')) eventName = line.slice(6).trim();
+                    if (line.startsWith('data:')) data += line.slice(5);
+                });
+                if (!data) continue;
+
+                const payload = JSON.parse(data);
+                if (eventName === 'question') {
+                    onQuestion(payload);
+                } else if (eventName === 'quiz') {
+                    quiz = payload;
+                } else if (eventName === 'error') {
+                    throw new Error(payload.error || 'Ошибка генерации теста');
+                }
+            }
+        }
+
+        if (!quiz) {
+            throw new Error('Генерация прервана');
+        }
+        return quiz;
+    }
+
+    static async getGenerationJob(jobId, waitSeconds = 0) {
+        return await this.makeRequest(`/api/quizzes/generate/jobs/${jobId}?waitSeconds=${waitSeconds}`);
     }
 
     static async submitQuiz(questions, userAnswers) {
@@ -155,8 +352,7 @@ class QuizAPI {
     }
 
     static logout() {
-        this.token = null;
-        localStorage.removeItem('authToken');
+        this.endSession();
         if (typeof showScreen === 'function') {
             showScreen('login');
         }
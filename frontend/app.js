@@ -6,7 +6,8 @@ const AppState = {
     quizResult: null,
     currentQuestionIndex: 0,
     currentUser: null,
-    isAdminMode: false
+    isAdminMode: false,
+    isStreaming: false
 };
 
 // Инициализация при загрузке страницы
@@ -173,7 +174,7 @@ function goBackBasedOnRole() {
 // Обновлённая функция выхода
 function logout() {
     if (confirm('Вы уверены, что хотите выйти?')) {
-        localStorage.removeItem('authToken');
+        QuizAPI.endSession();
         localStorage.removeItem('adminToken');
         AppState.currentUser = null;
         AppState.isAdminMode = false;
@@ -274,27 +275,52 @@ async function generateQuiz() {
     showLoading('Генерируем вопросы...');
     setButtonLoading(generateButton, true);
 
+    AppState.currentQuiz = null;
+    AppState.currentQuestions = [];
+    AppState.userAnswers = {};
+    AppState.currentQuestionIndex = 0;
+    AppState.isStreaming = true;
+
     try {
-        const quiz = await QuizAPI.generateQuiz(topics, difficulty, questionCount);
+        // Тест стартует с первым готовым вопросом, остальные дописываются по мере генерации
+        const quiz = await QuizAPI.generateQuizStream(topics, difficulty, questionCount, question => {
+            AppState.currentQuestions.push(convertQuestionToMap(question));
+            if (AppState.currentQuestions.length === 1) {
+                hideLoading();
+                setButtonLoading(generateButton, false);
+                startQuiz();
+            } else {
+                refreshQuizProgress();
+            }
+        });
+
+        const startedEarly = AppState.currentQuestions.length > 0;
+        AppState.isStreaming = false;
         AppState.currentQuiz = quiz;
         AppState.currentQuestions = convertQuizToMapList(quiz);
-        AppState.userAnswers = {};
-        AppState.currentQuestionIndex = 0;
-
-        // Небольшая задержка чтобы анимация была заметной
-        setTimeout(() => {
+        if (startedEarly) {
+            refreshQuizProgress();
+        } else {
             hideLoading();
             setButtonLoading(generateButton, false);
             startQuiz();
-        }, 500);
+        }
 
     } catch (error) {
+        AppState.isStreaming = false;
         hideLoading();
         setButtonLoading(generateButton, false);
         alert('Ошибка при генерации теста: ' + error.message);
     }
 }
 
+// Обновление счётчика и навигации, пока вопросы ещё приходят
+function refreshQuizProgress() {
+    document.getElementById('totalQuestions').textContent =
+        AppState.currentQuestions.length;
+    displayCurrentQuestion();
+}
+
 // Загрузка сохраненных тестов
 async function loadSavedQuizzes() {
     const quizzesList = document.getElementById('quizzesList');
@@ -306,13 +332,33 @@ async function loadSavedQuizzes() {
     `;
 
     try {
-        const quizzes = await QuizAPI.getAllQuizzes();
-        displayQuizzesList(quizzes);
+        const page = await QuizAPI.getQuizCatalogue();
+        displayQuizzesList(page.items, page.nextCursor);
     } catch (error) {
         quizzesList.innerHTML = '<div class="error">Ошибка загрузки тестов</div>';
     }
 }
 
+// Следующая страница каталога дописывается в конец списка
+async function loadMoreQuizzes(cursor) {
+    const button = document.getElementById('loadMoreQuizzes');
+    if (button) {
+        button.disabled = true;
+        button.textContent = 'Загружаем...';
+    }
+
+    try {
+        const page = await QuizAPI.getQuizCatalogue(cursor);
+        displayQuizzesList(page.items, page.nextCursor, true);
+    } catch (error) {
+        if (button) {
+            button.disabled = false;
+            button.textContent = 'Загрузить ещё';
+        }
+        alert('Ошибка загрузки тестов: ' + error.message);
+    }
+}
+
 // Запуск теста
 function startQuiz() {
     if (!AppState.currentQuestions.length) {
@@ -362,7 +408,7 @@ function displayCurrentQuestion() {
     document.getElementById('nextBtn').style.display =
         AppState.currentQuestionIndex < AppState.currentQuestions.length - 1 ? 'block' : 'none';
     document.getElementById('finishBtn').style.display =
-        AppState.currentQuestionIndex === AppState.currentQuestions.length - 1 ? 'block' : 'none';
+        !AppState.isStreaming && AppState.currentQuestionIndex === AppState.currentQuestions.length - 1 ? 'block' : 'none';
 }
 
 // Выбор ответа
@@ -494,17 +540,18 @@ async function deleteQuiz(quizId, quizTitle, event) {
         }
 }
 
-// Отображение списка тестов
-function displayQuizzesList(quizzes) {
+// Отображение списка тестов (в каталоге только краткие сведения, вопросы грузятся при запуске)
+function displayQuizzesList(quizzes, nextCursor = null, append = false) {
     const quizzesList = document.getElementById('quizzesList');
+    document.getElementById('loadMoreQuizzes')?.remove();
 
-    if (!quizzes || quizzes.length === 0) {
+    if (!append && (!quizzes || quizzes.length === 0)) {
         quizzesList.innerHTML = '<div class="loading">Нет сохраненных тестов</div>';
         return;
     }
 
-    quizzesList.innerHTML = quizzes.map(quiz => `
-        <div class="quiz-card" onclick="runSavedQuiz(${JSON.stringify(quiz).replace(/"/g, '&quot;')})">
+    const cards = quizzes.map(quiz => `
+        <div class="quiz-card" onclick="runSavedQuiz(${quiz.id})">
             <div class="quiz-header">
                 <h3>${quiz.title}</h3>
                 <button class="btn-delete" onclick="deleteQuiz(${quiz.id}, '${quiz.title.replace(/'/g, "\\'")}', event)">
@@ -513,11 +560,21 @@ function displayQuizzesList(quizzes) {
             </div>
             <p><strong>Описание:</strong> ${quiz.description}</p>
             <p><strong>Тэги:</strong> ${quiz.tags?.join(', ') || 'Нет тэгов'}</p>
-            <p><strong>Вопросов:</strong> ${quiz.questions?.length || 0}</p>
+            <p><strong>Вопросов:</strong> ${quiz.questionCount || 0}</p>
             <p><strong>Сложность:</strong> ${quiz.difficulty}</p>
             <p><strong>ID:</strong> ${quiz.id}</p>
         </div>
     `).join('');
+
+    const loadMore = nextCursor !== null && nextCursor !== undefined
+        ? `<button id="loadMoreQuizzes" class="btn" onclick="loadMoreQuizzes(${nextCursor})">Загрузить ещё</button>`
+        : '';
+
+    if (append) {
+        quizzesList.insertAdjacentHTML('beforeend', cards + loadMore);
+    } else {
+        quizzesList.innerHTML = cards + loadMore;
+    }
 }
 
 // Функция для обновления списка тестов
@@ -527,8 +584,16 @@ async function refreshQuizzesList() {
     await loadSavedQuizzes();
 }
 
-// Запуск сохраненного теста
-function runSavedQuiz(quiz) {
+// Запуск сохраненного теста: полный тест с вопросами запрашивается по id
+async function runSavedQuiz(quizId) {
+    let quiz;
+    try {
+        quiz = await QuizAPI.getQuiz(quizId);
+    } catch (error) {
+        alert('Ошибка загрузки теста: ' + error.message);
+        return;
+    }
+
     AppState.currentQuiz = quiz;
     AppState.currentQuestions = convertQuizToMapList(quiz);
     AppState.userAnswers = {};
@@ -540,14 +605,18 @@ function runSavedQuiz(quiz) {
 function convertQuizToMapList(quiz) {
     if (!quiz.questions) return [];
 
-    return quiz.questions.map(question => ({
+    return quiz.questions.map(convertQuestionToMap);
+}
+
+function convertQuestionToMap(question) {
+    return {
         text: question.text,
         options: question.options || [],
         correctAnswer: question.correctAnswer,
         explanation: question.explanation,
         tags: question.tags ? Array.from(question.tags) : [],
         difficulty: question.difficulty
-    }));
+    };
 }
 
 // Переключение между экранами аутентификации